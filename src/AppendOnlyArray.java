@@ -0,0 +1,222 @@
+/*
+ * What is an append only concurrent array?
+ *
+ *     An append only array is a dynamic array that only supports adding to the end and reading. Giving up removal
+ *     and set lets many producer threads append at the same time without any lock, which is what we want for a
+ *     high rate event log that a consumer scans later.
+ *
+ * How appending works
+ *
+ *     1) Reserve: a writer claims its slot with one atomic increment of the reserved counter. No two writers ever
+ *        get the same index, and nobody waits on anybody to get one.
+ *
+ *     2) Write: the writer stores its element in its slot with a volatile write. The storage is split into segments, and segment k holds
+ *        16 * 2^k elements, so each new segment doubles the total capacity:
+ *
+ *            segment 0: indices 0..15
+ *            segment 1: indices 16..47
+ *            segment 2: indices 48..111
+ *            ...
+ *
+ *        A missing segment is allocated by whichever writer needs it first and installed with a compare and set.
+ *        Writers that lose the race just use the winner's segment. Nothing is ever copied and there is no global lock.
+ *
+ *     That volatile store is the publish. Every slot is published on its own, so writers never wait for each other.
+ *
+ * How reading works
+ *
+ *     Readers want a consistent prefix: size() == n should mean all of slots 0..n-1 are written, even though writers
+ *     finish in any order. The published counter caches how long that prefix was last time we looked. size() moves
+ *     it forward over every consecutive slot that is written by now, with a compare and set per step, so any number
+ *     of readers (and the writer that just filled the slot at the watermark) can help push it forward at once:
+ *
+ *         slots:     [ a | b | c | _ | e | f ]        d is reserved but its writer hasn't stored it yet
+ *         published: 2 -> 3                           size() is 3 until d shows up, then 6
+ *
+ *     A writer that is slow to store its element only holds back what readers see, never other writers. If it
+ *     never stores (it died, or threw between reserving and writing) the prefix readers see stops at its slot,
+ *     but every add still succeeds.
+ *
+ * Complexity Analysis
+ *
+ *     Add: O(1), one atomic increment plus one volatile write
+ *     Get: O(1)
+ *     Size: O(1) amortized, every slot is stepped over once
+ *     Iterate: O(n) over a consistent prefix of the array
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@SuppressWarnings("unchecked")
+public class AppendOnlyArray <T> implements Iterable <T>
+{
+	//segment 0 holds 2^FIRST_SHIFT elements, every following segment is twice as big as the one before it
+	private static final int FIRST_SHIFT = 4;
+
+	//largest number of elements we can hold. index + 2^FIRST_SHIFT must still fit in an int
+	private static final int MAX_SIZE = Integer.MAX_VALUE - (1 << FIRST_SHIFT);
+
+	//enough segments to cover every index up to MAX_SIZE
+	private static final int SEGMENT_COUNT = 32 - FIRST_SHIFT;
+
+	//stored in place of null elements, so an empty slot always means "not written yet"
+	private static final Object NULL = new Object();
+
+	private final AtomicReferenceArray<AtomicReferenceArray<Object>> segments =
+			new AtomicReferenceArray<AtomicReferenceArray<Object>>(SEGMENT_COUNT);
+
+	//next slot to hand out to a writer
+	private final AtomicInteger reserved = new AtomicInteger();
+
+	//watermark: slots 0..published-1 are all written. only moves forward, see advance()
+	private final AtomicInteger published = new AtomicInteger();
+
+	//number of elements readers can see, the length of the written prefix
+	public int size()
+	{
+		return advance();
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//appends elem and returns the index it was stored at. safe to call from any number of threads at once
+	public int add(T elem)
+	{
+		int index = reserved.getAndIncrement();
+		if(index < 0 || index >= MAX_SIZE)
+		{
+			throw new IllegalStateException("Array is full");
+		}
+
+		int pos = index + (1 << FIRST_SHIFT);
+		int highBit = 31 - Integer.numberOfLeadingZeros(pos);
+		segment(highBit - FIRST_SHIFT).set(pos - (1 << highBit), elem == null ? NULL : elem);
+
+		//if the watermark was waiting on our slot, push it forward now instead of leaving that to the next reader
+		if(published.get() == index)
+		{
+			advance();
+		}
+		return index;
+	}
+
+	//moves the watermark over every written slot right after it and returns it. many threads can run this at the
+	//same time: a failed compare and set means someone else already moved it, so we just continue from there
+	private int advance()
+	{
+		int mark = published.get();
+		while(mark < MAX_SIZE && written(mark))
+		{
+			if(published.compareAndSet(mark, mark + 1))
+			{
+				mark++;
+			}
+			else
+			{
+				mark = published.get();
+			}
+		}
+		return mark;
+	}
+
+	//true if the writer that reserved index has stored its element
+	private boolean written(int index)
+	{
+		int pos = index + (1 << FIRST_SHIFT);
+		int highBit = 31 - Integer.numberOfLeadingZeros(pos);
+		AtomicReferenceArray<Object> segment = segments.get(highBit - FIRST_SHIFT);
+		return segment != null && segment.get(pos - (1 << highBit)) != null;
+	}
+
+	//get a published value from the array by index
+	public T get(int index)
+	{
+		if(index < 0 || (index >= published.get() && index >= advance()))
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + published.get());
+		}
+		int pos = index + (1 << FIRST_SHIFT);
+		int highBit = 31 - Integer.numberOfLeadingZeros(pos);
+		return unwrap(segments.get(highBit - FIRST_SHIFT).get(pos - (1 << highBit)));
+	}
+
+	private static <T> T unwrap(Object stored)
+	{
+		return stored == NULL ? null : (T) stored;
+	}
+
+	//returns segment k, allocating and installing it if no writer has done that yet
+	private AtomicReferenceArray<Object> segment(int k)
+	{
+		AtomicReferenceArray<Object> segment = segments.get(k);
+		if(segment == null)
+		{
+			AtomicReferenceArray<Object> fresh = new AtomicReferenceArray<Object>(1 << (k + FIRST_SHIFT));
+			if(segments.compareAndSet(k, null, fresh))
+			{
+				segment = fresh;
+			}
+			else
+			{
+				segment = segments.get(k); //another writer beat us to it, use theirs
+			}
+		}
+		return segment;
+	}
+
+	//iterates every element of the written prefix when the iterator was created, walking the segments in order.
+	//elements appended afterwards are not seen, so every iteration sees a consistent prefix of the array
+	@Override
+	public Iterator<T> iterator()
+	{
+		final int size = advance();
+		return new Iterator <T> ()
+		{
+			int index = 0;
+			int segmentIndex = -1;
+			int offset = 0;
+			AtomicReferenceArray<Object> segment = null;
+
+			public boolean hasNext()
+			{
+				return index < size;
+			}
+
+			public T next()
+			{
+				if(index >= size) throw new NoSuchElementException();
+				if(segment == null || offset == segment.length())
+				{
+					segment = segments.get(++segmentIndex);
+					offset = 0;
+				}
+				index++;
+				return unwrap(segment.get(offset++));
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the published elements
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		Iterator<T> it = iterator();
+		while(it.hasNext())
+		{
+			sb.append(it.next());
+			if(it.hasNext())
+			{
+				sb.append(", ");
+			}
+		}
+		return sb.append("]").toString();
+	}
+}
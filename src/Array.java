@@ -1,4 +1,10 @@
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings("unchecked")
 public class Array <T> implements Iterable <T> //supports generics <T>
@@ -7,6 +13,12 @@ public class Array <T> implements Iterable <T> //supports generics <T>
     private int len = 0; //length user thinks array is
     private int capacity = 0; //actual array size
     
+    //optional hash index from element to position, see enableHashIndex(). this is an open addressing table with
+    //linear probing: slots holds a position in arr (or -1 for an empty slot) and slotHashes caches the hash of the
+    //element at that position so probing rarely has to call equals. both are null while the index is disabled
+    private int [] slots = null;
+    private int [] slotHashes = null;
+    
     //constructor inits array to be size 16
     public Array() 
     {
@@ -33,16 +45,27 @@ public class Array <T> implements Iterable <T> //supports generics <T>
     	return size() == 0;
     }
     
-    //get a value from the array by index. should include bounds check
+    //get a value from the array by index
     public T get(int index) 
     {
+    	if(index >= len || index < 0) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
     	return arr[index]; 
     }
     
-    //set the value of an index in the array. should include bounds check
+    //set the value of an index in the array
     public void set(int index, T elem) 
     {
-    	arr[index] = elem;
+    	if(index >= len || index < 0) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	if(slots != null)
+    	{
+    		indexRemove(index);
+    		arr[index] = elem;
+    		indexInsert(index);
+    	}
+    	else
+    	{
+    		arr[index] = elem;
+    	}
     }
     
     //clear all data in the array. reset length
@@ -53,63 +76,189 @@ public class Array <T> implements Iterable <T> //supports generics <T>
     		arr[i] = null;
     	}
     	len = 0;
+    	if(slots != null)
+    	{
+    		Arrays.fill(slots, -1);
+    	}
     }
     
     //adds a new element to the array
     public void add(T elem) 
     {
     	//if adding a new element would make the array go out of bounds then we need to resize array
-    	if(len + 1 >= capacity)
+    	if(len == capacity)
     	{
-    		if(capacity == 0) 
-    		{
-    			capacity = 1;
-    		}
-    		else 
-    		{
-    			capacity *= 2; // we double the size of the array here
-    		}
-    		T[] new_arr = (T[]) new Object[capacity];
-    		for(int i = 0; i < len; i++) 
-    		{
-    			new_arr[i] = arr[i]; //copy all elements from old array into new array
-    		}
-    		arr = new_arr; //sets old array equal to new array. has extra nulls padded
+    		grow();
     	}
     	arr[len++] = elem; // add new element into a null space at the back of the new array
+    	if(slots != null)
+    	{
+    		indexInsert(len - 1);
+    	}
+    }
+    
+    //doubles the capacity of the array and copies every element over
+    private void grow()
+    {
+    	if(capacity == 0) 
+    	{
+    		capacity = 1;
+    	}
+    	else 
+    	{
+    		capacity *= 2; // we double the size of the array here
+    	}
+    	T[] new_arr = (T[]) new Object[capacity];
+    	for(int i = 0; i < len; i++) 
+    	{
+    		new_arr[i] = arr[i]; //copy all elements from old array into new array
+    	}
+    	arr = new_arr; //sets old array equal to new array. has extra nulls padded
+    }
+    
+    //inserts elem at index and shifts everything from index onwards one slot to the right. index may be size() to
+    //append. this is O(n - index); for repeated edits around a moving cursor use GapArray instead
+    public void insertAt(int index, T elem)
+    {
+    	if(index > len || index < 0)
+    	{
+    		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	}
+    	
+    	if(len == capacity)
+    	{
+    		grow();
+    	}
+    	System.arraycopy(arr, index, arr, index + 1, len - index);
+    	arr[index] = elem;
+    	len++;
+    	if(slots != null)
+    	{
+    		indexShiftUp(index);
+    		indexInsert(index);
+    	}
     }
     
     //removes the element at the specified index in this list
+    //we shift everything after rm_index one slot to the left in place instead of building a new array, so removal
+    //allocates nothing and the capacity we already grew to is kept for the next add
     public T removeAt(int rm_index) 
     {
-    	if(rm_index >= len && rm_index < 0) 
+    	if(rm_index >= len || rm_index < 0) 
     	{
-    		throw new IndexOutOfBoundsException();
+    		throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
     	}
     	
-    	T data = arr[rm_index]; // add the remove index to the array
-    	T[] new_arr = (T[]) new Object[len-1]; //init new array of size l-1 to account for removal
+    	T data = arr[rm_index];
+    	if(slots != null)
+    	{
+    		indexRemove(rm_index);
+    		indexShiftDown(rm_index);
+    	}
+    	System.arraycopy(arr, rm_index + 1, arr, rm_index, len - rm_index - 1);
+    	arr[--len] = null; //null out the old last slot so we don't hold on to a stale reference
+    	return data;
+    }
+    
+    //removes every element with an index in [from, to). shifts the tail left once, O(n)
+    public void removeRange(int from, int to)
+    {
+    	if(from < 0 || to > len || from > to)
+    	{
+    		throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + len);
+    	}
     	
-    	//copy all elements into new array except for rm_index
-    	for(int i = 0, j = 0; i < len; i++, j++) 
+    	System.arraycopy(arr, to, arr, from, len - to);
+    	int newLen = len - (to - from);
+    	for(int i = newLen; i < len; i++)
     	{
-    		if(i == rm_index) 
+    		arr[i] = null;
+    	}
+    	len = newLen;
+    	if(slots != null)
+    	{
+    		rebuildIndex();
+    	}
+    }
+    
+    //removes every element the filter accepts and returns true if anything was removed.
+    //we walk the array once with a read index and a write index and copy each kept element down to the write index,
+    //so the whole removal is a single O(n) pass with no allocation
+    public boolean removeIf(java.util.function.Predicate<? super T> filter)
+    {
+    	if(filter == null) throw new IllegalArgumentException("filter cannot be null");
+    	return compact(elem -> !filter.test(elem));
+    }
+    
+    //keeps only the elements that are also inside c and returns true if anything was removed. single pass like removeIf
+    public boolean retainAll(java.util.Collection<?> c)
+    {
+    	if(c == null) throw new IllegalArgumentException("collection cannot be null");
+    	return compact(c::contains);
+    }
+    
+    //the single pass behind removeIf and retainAll: keeps the elements keep accepts, in order. if keep throws we
+    //still leave a valid array behind: the elements we haven't looked at yet (including the one keep threw on)
+    //slide down right after the ones we kept, so nothing is lost or duplicated, and truncate fixes len and the index
+    private boolean compact(java.util.function.Predicate<? super T> keep)
+    {
+    	int w = 0, r = 0;
+    	boolean removed;
+    	try
+    	{
+    		for(; r < len; r++)
     		{
-    			j--; //skip over rm_index by fixing j temporarily
+    			T elem = arr[r];
+    			if(keep.test(elem))
+    			{
+    				arr[w++] = elem;
+    			}
     		}
-    		else 
+    	}
+    	finally
+    	{
+    		if(r < len)
     		{
-    			new_arr[j] = arr[i];
+    			System.arraycopy(arr, r, arr, w, len - r);
+    			w += len - r;
     		}
+    		removed = truncate(w);
     	}
-    	arr = new_arr; //set array to be the new array we just generated
-    	capacity = --len;
-    	return data;
+    	return removed;
+    }
+    
+    //cuts the array down to newLen elements after a compaction pass and nulls out the leftover slots
+    private boolean truncate(int newLen)
+    {
+    	if(newLen == len)
+    	{
+    		return false;
+    	}
+    	for(int i = newLen; i < len; i++)
+    	{
+    		arr[i] = null;
+    	}
+    	len = newLen;
+    	if(slots != null)
+    	{
+    		rebuildIndex();
+    	}
+    	return true;
     }
     
     //look through array, if we find the element while we search we return true, if not, false
     public boolean remove(Object obj) 
     {
+    	if(slots != null)
+    	{
+    		int index = indexFind(obj);
+    		if(index == -1)
+    		{
+    			return false;
+    		}
+    		removeAt(index);
+    		return true;
+    	}
     	for(int i = 0; i < len; i++)
     	{
     		if(arr[i].equals(obj))
@@ -124,6 +273,10 @@ public class Array <T> implements Iterable <T> //supports generics <T>
     //loop through array, if we find element return its index, if not return -1
     public int indexOf(Object obj)
     {
+    	if(slots != null)
+    	{
+    		return indexFind(obj);
+    	}
     	for(int i = 0; i < len; i++)
     	{
     		if(arr[i].equals(obj))
@@ -135,12 +288,213 @@ public class Array <T> implements Iterable <T> //supports generics <T>
     }
     
     //finds if array contains value. Puts the element into indexOf, if it returns -1 aka didnt find it, return false
-    //otherwise return true
+    //otherwise return true. with the hash index on we don't need the position, so we stop at the first match
     public boolean contains(Object obj)
     {
+    	if(slots != null)
+    	{
+    		return indexContains(obj);
+    	}
     	return indexOf(obj) != -1;
     }
     
+    //turns on the hash index. from now on contains and indexOf take O(1) expected time instead of scanning the
+    //array, at the cost of two extra ints per element. remove(Object) finds the element in O(1) too, but removing
+    //it still shifts the tail of the array and renumbers every position in the index, O(n) like before. the index
+    //is kept in sync by add, set, removeAt, clear and every bulk operation. while it is enabled elements are
+    //compared with null safe equals
+    public void enableHashIndex()
+    {
+    	if(slots == null)
+    	{
+    		rebuildIndex();
+    	}
+    }
+    
+    //turns the hash index off and frees its memory
+    public void disableHashIndex()
+    {
+    	slots = null;
+    	slotHashes = null;
+    }
+    
+    //true if the hash index is enabled
+    public boolean isHashIndexed()
+    {
+    	return slots != null;
+    }
+    
+    //spreads the bits of the hash code so consecutive hash codes (like small Integers) don't cluster together
+    private static int hash(Object obj)
+    {
+    	int h = obj == null ? 0 : obj.hashCode() * 0x9E3779B9;
+    	return h ^ (h >>> 16);
+    }
+    
+    //throws away the index and inserts every position again. the table is kept at most half full
+    private void rebuildIndex()
+    {
+    	int tableSize = 16;
+    	while(tableSize < len * 2)
+    	{
+    		tableSize <<= 1;
+    	}
+    	slots = new int[tableSize];
+    	slotHashes = new int[tableSize];
+    	Arrays.fill(slots, -1);
+    	for(int i = 0; i < len; i++)
+    	{
+    		indexInsert(i);
+    	}
+    }
+    
+    //adds position pos to the index. we probe forward from the home slot of the element until we find an empty slot
+    private void indexInsert(int pos)
+    {
+    	if(len * 2 > slots.length)
+    	{
+    		rebuildIndex(); //the rebuild inserts pos for us
+    		return;
+    	}
+    	int mask = slots.length - 1;
+    	int h = hash(arr[pos]);
+    	int i = h & mask;
+    	while(slots[i] != -1)
+    	{
+    		i = (i + 1) & mask;
+    	}
+    	slots[i] = pos;
+    	slotHashes[i] = h;
+    }
+    
+    //removes position pos from the index. instead of leaving a tombstone we use backward shift deletion: every entry
+    //after the hole that could legally live in the hole is moved back into it, so probe chains never get longer
+    private void indexRemove(int pos)
+    {
+    	int mask = slots.length - 1;
+    	int i = hash(arr[pos]) & mask;
+    	while(slots[i] != pos)
+    	{
+    		i = (i + 1) & mask;
+    	}
+    	
+    	int j = i;
+    	while(true)
+    	{
+    		j = (j + 1) & mask;
+    		if(slots[j] == -1)
+    		{
+    			break;
+    		}
+    		int home = slotHashes[j] & mask;
+    		//the entry at j stays put if its home slot lies cyclically in (i, j]
+    		boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+    		if(!stays)
+    		{
+    			slots[i] = slots[j];
+    			slotHashes[i] = slotHashes[j];
+    			i = j;
+    		}
+    	}
+    	slots[i] = -1;
+    }
+    
+    //every element after rm_index is about to move one slot to the left, so the positions stored in the index have
+    //to move with them. this is O(table size) which is the same order as the shift itself
+    private void indexShiftDown(int rm_index)
+    {
+    	if(rm_index == len - 1)
+    	{
+    		return; //removing the last element doesn't move anything
+    	}
+    	for(int i = 0; i < slots.length; i++)
+    	{
+    		if(slots[i] > rm_index)
+    		{
+    			slots[i]--;
+    		}
+    	}
+    }
+    
+    //every element from index onwards just moved one slot to the right, so the positions in the index move too
+    private void indexShiftUp(int index)
+    {
+    	for(int i = 0; i < slots.length; i++)
+    	{
+    		if(slots[i] >= index)
+    		{
+    			slots[i]++;
+    		}
+    	}
+    }
+    
+    //looks obj up in the index and returns its lowest position, or -1. duplicates all hash to the same probe chain,
+    //so we keep walking until the chain ends to make sure we return the first occurrence like the linear scan does
+    private int indexFind(Object obj)
+    {
+    	int mask = slots.length - 1;
+    	int h = hash(obj);
+    	int found = -1;
+    	for(int i = h & mask; slots[i] != -1; i = (i + 1) & mask)
+    	{
+    		int pos = slots[i];
+    		if(slotHashes[i] == h && (found == -1 || pos < found) && java.util.Objects.equals(obj, arr[pos]))
+    		{
+    			found = pos;
+    		}
+    	}
+    	return found;
+    }
+    
+    //true if obj is in the index. unlike indexFind this doesn't care which position it is at, so it returns at the
+    //first equal entry instead of walking the rest of the probe chain
+    private boolean indexContains(Object obj)
+    {
+    	int mask = slots.length - 1;
+    	int h = hash(obj);
+    	for(int i = h & mask; slots[i] != -1; i = (i + 1) & mask)
+    	{
+    		if(slotHashes[i] == h && java.util.Objects.equals(obj, arr[slots[i]]))
+    		{
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+    
+    //sorts the elements in place on the backing array. pass null to use the natural ordering of the elements.
+    //this is a stable merge sort (TimSort), O(nlog(n)), and runs in O(n) on input that is already sorted
+    public void sort(Comparator<? super T> c)
+    {
+    	Arrays.sort(arr, 0, len, c);
+    	if(slots != null)
+    	{
+    		rebuildIndex();
+    	}
+    }
+    
+    //same as sort but splits the array into pieces that are sorted on the common fork-join pool and merged back
+    //together. on small arrays it just falls back to a sequential sort
+    public void parallelSort(Comparator<? super T> c)
+    {
+    	if(c == null)
+    	{
+    		c = (Comparator<? super T>) Comparator.naturalOrder();
+    	}
+    	Arrays.parallelSort(arr, 0, len, c);
+    	if(slots != null)
+    	{
+    		rebuildIndex();
+    	}
+    }
+    
+    //binary search for key, O(log(n)). the array must already be sorted with the same comparator (null for natural
+    //ordering). returns the index of key if found, otherwise (-(insertion point) - 1) just like Arrays.binarySearch
+    public int binarySearch(T key, Comparator<? super T> c)
+    {
+    	return Arrays.binarySearch(arr, 0, len, key, c);
+    }
+    
     //iterator is still fast but not as fast as iterative for loop
     //iterator allows us to iterate over the array providing abstraction for it
     //to use this we have to override the methods hasNext and next
@@ -166,6 +520,137 @@ public class Array <T> implements Iterable <T> //supports generics <T>
 		};
 	}
 	
+	//a spliterator that knows its exact size and splits by halving its index range, so a parallel stream can hand
+	//each half to a different fork-join worker. it is late binding like ArrayList's: the range [0, len) and the
+	//backing array are read when the stream starts running (the first split, advance or size estimate), not when
+	//stream() is called, so changes made between building a stream and running it are seen. changing the array
+	//while the stream is running is not supported
+	@Override
+	public Spliterator<T> spliterator()
+	{
+		return new ArraySpliterator(null, 0, -1);
+	}
+	
+	//sequential stream over the elements of the array
+	public Stream<T> stream()
+	{
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	//parallel stream over the elements of the array
+	public Stream<T> parallelStream()
+	{
+		return StreamSupport.stream(spliterator(), true);
+	}
+	
+	//covers the index range [index, fence) of a backing array
+	private class ArraySpliterator implements Spliterator<T>
+	{
+		T[] a; //the backing array we read from, null until we bind
+		int index; //next index to hand out
+		int fence; //one past the last index we cover, -1 until we bind
+		
+		ArraySpliterator(T[] a, int origin, int fence)
+		{
+			this.a = a;
+			this.index = origin;
+			this.fence = fence;
+		}
+		
+		//binds to the current backing array and length on first use and returns the fence
+		private int fence()
+		{
+			if(fence < 0)
+			{
+				a = arr;
+				fence = len;
+			}
+			return fence;
+		}
+		
+		//give away the lower half of our range and keep the upper half. returns null once the range is too small
+		//to split
+		@Override
+		public Spliterator<T> trySplit()
+		{
+			int lo = index, mid = (lo + fence()) >>> 1;
+			if(lo >= mid)
+			{
+				return null;
+			}
+			index = mid;
+			return new ArraySpliterator(a, lo, mid);
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action)
+		{
+			if(action == null) throw new NullPointerException();
+			if(index < fence())
+			{
+				action.accept(a[index++]);
+				return true;
+			}
+			return false;
+		}
+		
+		//tight loop over the rest of our range
+		@Override
+		public void forEachRemaining(Consumer<? super T> action)
+		{
+			if(action == null) throw new NullPointerException();
+			int hi = fence();
+			T[] a = this.a;
+			for(int i = index; i < hi; i++)
+			{
+				action.accept(a[i]);
+			}
+			index = hi;
+		}
+		
+		@Override
+		public long estimateSize()
+		{
+			return fence() - index;
+		}
+		
+		@Override
+		public int characteristics()
+		{
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED;
+		}
+	}
+	
+	//lazy view over the whole array. nothing is copied, see ArrayView
+	public ArrayView<T> view()
+	{
+		return ArrayView.of(this);
+	}
+	
+	//lazy view of the elements that pass the filter
+	public ArrayView<T> filtered(java.util.function.Predicate<? super T> filter)
+	{
+		return view().filtered(filter);
+	}
+	
+	//lazy view of every element transformed by mapper
+	public <R> ArrayView<R> mapped(java.util.function.Function<? super T, ? extends R> mapper)
+	{
+		return view().mapped(mapper);
+	}
+	
+	//lazy view of the elements with an index in [from, to). throws if the range doesn't fit in the array
+	public ArrayView<T> sliced(int from, int to)
+	{
+		return view().sliced(from, to);
+	}
+	
+	//lazy view of the elements in reverse order
+	public ArrayView<T> reversed()
+	{
+		return view().reversed();
+	}
+	
 	//we can call this method to get a string representation of the array
 	@Override
 	public String toString() 
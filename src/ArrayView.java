@@ -0,0 +1,435 @@
+/*
+ * What is a lazy view?
+ *
+ *     Chaining filter, map and limit over an Array by building a new Array at every step allocates a full sized
+ *     temporary for each step, even though we only ever want the final result.
+ *
+ *     An ArrayView is a description of a computation over an Array instead of a copy of its elements. Calling
+ *     filtered, mapped, sliced or reversed just wraps the previous view in a new (tiny) view object. Nothing runs
+ *     until we iterate the view or call toArray():
+ *
+ *         array.filtered(x -> x > 0).mapped(x -> x * 2).sliced(0, 10).toArray()
+ *
+ *     toArray() pushes every source element through the whole chain in one loop (the steps are fused), so each
+ *     element is filtered, mapped and collected before we even look at the next one, and the only thing that gets
+ *     allocated is the output.
+ *
+ * Sizing the output
+ *
+ *     Every view knows an upper bound on how many elements it can produce. Mapping and reversing keep the bound of
+ *     the view below them, slicing narrows it and filtering can only make it smaller. toArray() allocates its
+ *     output with exactly that bound, so it is sized once and never has to grow. When there is no filter in the
+ *     chain the bound is the exact size.
+ *
+ * Indexed views
+ *
+ *     Views that know exactly which source element sits at every position (the source itself, and anything built
+ *     from it only by mapping, slicing and reversing) are indexed: they can fetch element i directly, so slicing
+ *     and reversing them costs nothing and their iterator just walks the indices. Once a filter is in the chain we
+ *     can't know where element i is without running the filter over everything before it, so those views can only
+ *     be run front to back and have no way to fetch element i at all.
+ *
+ *     sliced(from, to) on an indexed view checks to against its size, the same check Array.sliced makes. A filtered
+ *     view has no known size, so there sliced behaves like skip(from) followed by limit(to - from).
+ *
+ * Views are live: they read the source Array when they are evaluated, not when they are created.
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public abstract class ArrayView <T> implements Iterable <T>
+{
+	//views are only created through Array or through other views
+	ArrayView() { }
+
+	//a view over every element of array
+	static <T> ArrayView<T> of(Array<T> array)
+	{
+		return new Source<T>(array);
+	}
+
+	//upper bound on the number of elements this view produces. exact for an indexed view
+	abstract int bound();
+
+	//feeds the elements to sink in order until sink returns false. returns false if sink stopped early.
+	//this is the fused loop every terminal operation runs on
+	abstract boolean push(Predicate<? super T> sink);
+
+	//a pull based iterator for for-each loops
+	@Override
+	public abstract Iterator<T> iterator();
+
+	//only the elements that pass the filter
+	public ArrayView<T> filtered(Predicate<? super T> filter)
+	{
+		if(filter == null) throw new IllegalArgumentException("filter cannot be null");
+		return new Filtered<T>(this, filter);
+	}
+
+	//every element transformed by mapper
+	public <R> ArrayView<R> mapped(Function<? super T, ? extends R> mapper)
+	{
+		if(mapper == null) throw new IllegalArgumentException("mapper cannot be null");
+		return new Mapped<T, R>(this, mapper);
+	}
+
+	//the elements with a position in [from, to) of this view. this view is filtered and has no known size, so this
+	//behaves like skip(from) followed by limit(to - from). indexed views override this with a bounds checked slice
+	public ArrayView<T> sliced(int from, int to)
+	{
+		if(from < 0 || from > to) throw new IndexOutOfBoundsException("From: " + from + ", To: " + to);
+		return new Sliced<T>(this, from, to);
+	}
+
+	//the elements in reverse order. this view is filtered, so it has to be collected into a temporary Array every
+	//time the reversed view is evaluated, since we can't know which element comes last without running the filter.
+	//indexed views override this with an O(1) reverse
+	public ArrayView<T> reversed()
+	{
+		return new Reversed<T>(this);
+	}
+
+	//evaluates the view into a new Array, sized once from bound()
+	public Array<T> toArray()
+	{
+		final Array<T> out = new Array<T>(bound());
+		push(elem ->
+		{
+			out.add(elem);
+			return true;
+		});
+		return out;
+	}
+
+	//runs action on every element through the fused loop, no iterator is created
+	@Override
+	public void forEach(Consumer<? super T> action)
+	{
+		if(action == null) throw new NullPointerException();
+		push(elem ->
+		{
+			action.accept(elem);
+			return true;
+		});
+	}
+
+	//we can call this method to get a string representation of the view. this evaluates it
+	@Override
+	public String toString()
+	{
+		return toArray().toString();
+	}
+
+	//a view with exactly bound() elements that can fetch any of them in O(1). mapping, slicing and reversing an
+	//indexed view gives another indexed view
+	private static abstract class Indexed <T> extends ArrayView <T>
+	{
+		//element i of the view, 0 <= i < bound()
+		abstract T get(int i);
+
+		boolean push(Predicate<? super T> sink)
+		{
+			for(int i = 0, n = bound(); i < n; i++)
+			{
+				if(!sink.test(get(i)))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public <R> ArrayView<R> mapped(Function<? super T, ? extends R> mapper)
+		{
+			if(mapper == null) throw new IllegalArgumentException("mapper cannot be null");
+			return new IndexedMapped<T, R>(this, mapper);
+		}
+
+		@Override
+		public ArrayView<T> sliced(int from, int to)
+		{
+			int size = bound();
+			if(from < 0 || from > to || to > size)
+			{
+				throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + size);
+			}
+			return new IndexedSliced<T>(this, from, to);
+		}
+
+		@Override
+		public ArrayView<T> reversed()
+		{
+			return new IndexedReversed<T>(this);
+		}
+
+		//walks the indices
+		@Override
+		public Iterator<T> iterator()
+		{
+			final int size = bound();
+			return new Iterator<T>()
+			{
+				int index = 0;
+
+				public boolean hasNext()
+				{
+					return index < size;
+				}
+
+				public T next()
+				{
+					if(index >= size) throw new NoSuchElementException();
+					return get(index++);
+				}
+			};
+		}
+	}
+
+	//the Array a chain of views starts from
+	private static class Source <T> extends Indexed <T>
+	{
+		final Array<T> array;
+
+		Source(Array<T> array)
+		{
+			this.array = array;
+		}
+
+		int bound() { return array.size(); }
+		T get(int i) { return array.get(i); }
+	}
+
+	private static class IndexedMapped <T, R> extends Indexed <R>
+	{
+		final Indexed<T> up;
+		final Function<? super T, ? extends R> mapper;
+
+		IndexedMapped(Indexed<T> up, Function<? super T, ? extends R> mapper)
+		{
+			this.up = up;
+			this.mapper = mapper;
+		}
+
+		int bound() { return up.bound(); }
+		R get(int i) { return mapper.apply(up.get(i)); }
+	}
+
+	private static class IndexedSliced <T> extends Indexed <T>
+	{
+		final Indexed<T> up;
+		final int from, to;
+
+		IndexedSliced(Indexed<T> up, int from, int to)
+		{
+			this.up = up;
+			this.from = from;
+			this.to = to;
+		}
+
+		//views are live, so the source may have shrunk since the slice was checked
+		int bound() { return Math.max(0, Math.min(to, up.bound()) - from); }
+		T get(int i) { return up.get(from + i); }
+	}
+
+	private static class IndexedReversed <T> extends Indexed <T>
+	{
+		final Indexed<T> up;
+
+		IndexedReversed(Indexed<T> up)
+		{
+			this.up = up;
+		}
+
+		int bound() { return up.bound(); }
+		T get(int i) { return up.get(up.bound() - 1 - i); }
+	}
+
+	private static class Mapped <T, R> extends ArrayView <R>
+	{
+		final ArrayView<T> up;
+		final Function<? super T, ? extends R> mapper;
+
+		Mapped(ArrayView<T> up, Function<? super T, ? extends R> mapper)
+		{
+			this.up = up;
+			this.mapper = mapper;
+		}
+
+		int bound() { return up.bound(); }
+
+		boolean push(Predicate<? super R> sink)
+		{
+			return up.push(elem -> sink.test(mapper.apply(elem)));
+		}
+
+		@Override
+		public Iterator<R> iterator()
+		{
+			final Iterator<T> it = up.iterator();
+			return new Iterator<R>()
+			{
+				public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				public R next()
+				{
+					return mapper.apply(it.next());
+				}
+			};
+		}
+	}
+
+	private static class Filtered <T> extends ArrayView <T>
+	{
+		final ArrayView<T> up;
+		final Predicate<? super T> filter;
+
+		Filtered(ArrayView<T> up, Predicate<? super T> filter)
+		{
+			this.up = up;
+			this.filter = filter;
+		}
+
+		int bound() { return up.bound(); }
+
+		boolean push(Predicate<? super T> sink)
+		{
+			return up.push(elem -> !filter.test(elem) || sink.test(elem));
+		}
+
+		//looks one element ahead so hasNext can tell whether anything else passes the filter
+		@Override
+		public Iterator<T> iterator()
+		{
+			final Iterator<T> it = up.iterator();
+			return new Iterator<T>()
+			{
+				T nextElem;
+				boolean ready = false;
+
+				public boolean hasNext()
+				{
+					while(!ready && it.hasNext())
+					{
+						T elem = it.next();
+						if(filter.test(elem))
+						{
+							nextElem = elem;
+							ready = true;
+						}
+					}
+					return ready;
+				}
+
+				public T next()
+				{
+					if(!hasNext()) throw new NoSuchElementException();
+					ready = false;
+					T elem = nextElem;
+					nextElem = null;
+					return elem;
+				}
+			};
+		}
+	}
+
+	//skip and limit over a view without a known size
+	private static class Sliced <T> extends ArrayView <T>
+	{
+		final ArrayView<T> up;
+		final int from, to;
+
+		Sliced(ArrayView<T> up, int from, int to)
+		{
+			this.up = up;
+			this.from = from;
+			this.to = to;
+		}
+
+		int bound() { return Math.max(0, Math.min(to, up.bound()) - from); }
+
+		//skip the first from elements, then stop pulling from upstream as soon as we have to - from of them
+		boolean push(Predicate<? super T> sink)
+		{
+			final int[] seen = {0};
+			final boolean[] stopped = {false};
+			up.push(elem ->
+			{
+				int pos = seen[0]++;
+				if(pos < from)
+				{
+					return true;
+				}
+				if(pos >= to)
+				{
+					return false;
+				}
+				if(!sink.test(elem))
+				{
+					stopped[0] = true;
+					return false;
+				}
+				return pos + 1 < to;
+			});
+			return !stopped[0];
+		}
+
+		@Override
+		public Iterator<T> iterator()
+		{
+			final Iterator<T> it = up.iterator();
+			return new Iterator<T>()
+			{
+				int pos = 0;
+
+				public boolean hasNext()
+				{
+					while(pos < from && it.hasNext())
+					{
+						it.next();
+						pos++;
+					}
+					return pos >= from && pos < to && it.hasNext();
+				}
+
+				public T next()
+				{
+					if(!hasNext()) throw new NoSuchElementException();
+					pos++;
+					return it.next();
+				}
+			};
+		}
+	}
+
+	//reverses a view without a known size by collecting it into a temporary Array each time it is evaluated
+	private static class Reversed <T> extends ArrayView <T>
+	{
+		final ArrayView<T> up;
+
+		Reversed(ArrayView<T> up)
+		{
+			this.up = up;
+		}
+
+		int bound() { return up.bound(); }
+
+		boolean push(Predicate<? super T> sink)
+		{
+			return of(up.toArray()).reversed().push(sink);
+		}
+
+		@Override
+		public Iterator<T> iterator()
+		{
+			return of(up.toArray()).reversed().iterator();
+		}
+	}
+}
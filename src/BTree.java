@@ -0,0 +1,581 @@
+/*
+ * What is a B-tree?
+ *
+ *     A BinaryTree node holds one key and two links. Finding a key among n keys visits about log2(n) nodes, and
+ *     every one of those nodes is a separate object somewhere on the heap, so every level costs a cache miss. With
+ *     tens of millions of keys that is around 25 misses per lookup.
+ *
+ *     A B-tree node holds many keys, sorted, in one contiguous array, plus one more child link than it has keys.
+ *     The children sit between the keys: everything in children[i] is bigger than keys[i - 1] and smaller than
+ *     keys[i]. With a fanout of 4 (at most 4 children and 3 keys per node):
+ *
+ *                        [ 10 | 20 ]
+ *                       /     |     \
+ *             [ 2 | 5 ]   [ 12 | 17 ]   [ 25 | 30 | 41 ]
+ *
+ *     A lookup binary searches the keys of one node, which are next to each other in memory, and then follows a
+ *     single link down. The tree is only about log(n) / log(fanout) levels tall, so a fanout of 32 turns 25 scattered
+ *     node visits into 5.
+ *
+ * Staying balanced
+ *
+ *     Every leaf of a B-tree is at the same depth, and every node except the root is at least half full. We keep it
+ *     that way in a single pass down from the root:
+ *
+ *         Insert: new keys always go into a leaf. Whenever we are about to step into a full node we split it first:
+ *         its middle key moves up into the parent (which we know has room, because we split it on the way down if
+ *         it was full) and the two halves become two nodes. When the root is full we split it into a new root, which
+ *         is the only way the tree grows taller.
+ *
+ *         Remove: whenever we are about to step into a node that is only half full, we first give it one more key,
+ *         either by borrowing one from a sibling through the parent, or by merging it with a sibling and the key
+ *         between them. Then we can always take a key out of the node we end up in. A key in an internal node is
+ *         replaced with its predecessor or successor from a leaf. When the root loses its last key its only child
+ *         becomes the root, which is the only way the tree gets shorter.
+ *
+ * Complexity Analysis
+ *
+ *     Insert/Remove/Search: O(log(n)) comparisons, O(log(n) / log(fanout)) nodes visited
+ *     Height: O(log(n) / log(fanout))
+ */
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unchecked")
+public class BTree <T extends Comparable<T>>
+{
+	private final int minKeys; //every node but the root has at least this many keys
+	private final int maxKeys; //and at most this many, maxKeys = 2 * minKeys + 1
+
+	private Node root = null; //null when the tree is empty
+	private int nodeCount = 0; //number of keys, same name as in BinaryTree
+	private int modCount = 0; //bumped on every successful add or remove so iterators can fail fast
+
+	//a node of the tree. keys and children are plain arrays sized for a full node, so all the keys of a node are
+	//next to each other in memory
+	private static class Node
+	{
+		final Object [] keys;
+		final Node [] children; //null for a leaf
+		int n = 0; //number of keys in use, a non leaf also uses n + 1 children
+
+		Node(int maxKeys, boolean leaf)
+		{
+			keys = new Object[maxKeys];
+			children = leaf ? null : new Node[maxKeys + 1];
+		}
+
+		boolean leaf()
+		{
+			return children == null;
+		}
+	}
+
+	//constructor with a fanout of 32
+	public BTree()
+	{
+		this(32);
+	}
+
+	//fanout is the most children a node can have. it has to be even and at least 4 so that a full node splits
+	//into two nodes of exactly the minimum size around its middle key
+	public BTree(int fanout)
+	{
+		if(fanout < 4 || (fanout & 1) != 0) throw new IllegalArgumentException("Illegal fanout: " + fanout);
+		maxKeys = fanout - 1;
+		minKeys = fanout / 2 - 1;
+	}
+
+	//check if this tree is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//get number of keys in this tree
+	public int size()
+	{
+		return nodeCount;
+	}
+
+	//number of levels of nodes. an empty tree has height 0 and a tree that is a single leaf has height 1. every
+	//leaf is at the same depth, so we just walk down the leftmost path
+	public int height()
+	{
+		int height = 0;
+		for(Node node = root; node != null; node = node.leaf() ? null : node.children[0])
+		{
+			height++;
+		}
+		return height;
+	}
+
+	//returns true if the element exists in the tree
+	public boolean contains(T elem)
+	{
+		Node node = root;
+		while(node != null)
+		{
+			int i = search(node, elem);
+			if(i >= 0)
+			{
+				return true;
+			}
+			node = node.leaf() ? null : node.children[-i - 1];
+		}
+		return false;
+	}
+
+	//add an element to this tree. returns true if we successfully perform an insertion, false if it was already
+	//in the tree
+	public boolean add(T elem)
+	{
+		if(root == null)
+		{
+			root = new Node(maxKeys, true);
+		}
+		else if(root.n == maxKeys)
+		{
+			Node newRoot = new Node(maxKeys, false);
+			newRoot.children[0] = root;
+			splitChild(newRoot, 0);
+			root = newRoot;
+		}
+
+		Node node = root;
+		while(true)
+		{
+			int i = search(node, elem);
+			if(i >= 0)
+			{
+				return false;
+			}
+			i = -i - 1;
+
+			if(node.leaf())
+			{
+				System.arraycopy(node.keys, i, node.keys, i + 1, node.n - i);
+				node.keys[i] = elem;
+				node.n++;
+				break;
+			}
+
+			//split a full child before stepping into it, so it has room for a key coming up from below
+			if(node.children[i].n == maxKeys)
+			{
+				splitChild(node, i);
+				int cmp = elem.compareTo((T) node.keys[i]);
+				if(cmp == 0)
+				{
+					return false;
+				}
+				if(cmp > 0)
+				{
+					i++;
+				}
+			}
+			node = node.children[i];
+		}
+
+		nodeCount++;
+		modCount++;
+		return true;
+	}
+
+	//remove a value from this tree, if it exists
+	public boolean remove(T elem)
+	{
+		if(root == null)
+		{
+			return false;
+		}
+
+		boolean removed = removeFrom(root, elem);
+
+		//merging the two children of a root with one key leaves the root empty. its only child takes its place
+		if(root.n == 0)
+		{
+			root = root.leaf() ? null : root.children[0];
+		}
+
+		if(removed)
+		{
+			nodeCount--;
+			modCount++;
+		}
+		return removed;
+	}
+
+	//the single pass down for remove. every node we step into has more than minKeys keys, so taking one out of it
+	//(or out of something below it) never leaves it too small
+	private boolean removeFrom(Node node, T elem)
+	{
+		while(true)
+		{
+			int i = search(node, elem);
+
+			if(i >= 0)
+			{
+				//the key is in a leaf, just close the hole
+				if(node.leaf())
+				{
+					removeKey(node, i);
+					return true;
+				}
+
+				Node left = node.children[i], right = node.children[i + 1];
+				//replace the key with its predecessor and go remove the predecessor from the left subtree
+				if(left.n > minKeys)
+				{
+					Node pred = left;
+					while(!pred.leaf())
+					{
+						pred = pred.children[pred.n];
+					}
+					elem = (T) pred.keys[pred.n - 1];
+					node.keys[i] = elem;
+					node = left;
+				}
+				//or with its successor from the right subtree
+				else if(right.n > minKeys)
+				{
+					Node succ = right;
+					while(!succ.leaf())
+					{
+						succ = succ.children[0];
+					}
+					elem = (T) succ.keys[0];
+					node.keys[i] = elem;
+					node = right;
+				}
+				//both are as small as they can be, merge them with the key between them and keep going in there
+				else
+				{
+					merge(node, i);
+					node = left;
+				}
+				continue;
+			}
+
+			i = -i - 1;
+			if(node.leaf())
+			{
+				return false;
+			}
+
+			//make sure the child we step into can lose a key
+			if(node.children[i].n == minKeys)
+			{
+				i = fill(node, i);
+			}
+			node = node.children[i];
+		}
+	}
+
+	//gives children[i] of node one more key, by borrowing from a sibling if one can spare it and by merging with a
+	//sibling otherwise. returns the index of the child that now holds what used to be in children[i]
+	private int fill(Node node, int i)
+	{
+		Node child = node.children[i];
+
+		//borrow from the left sibling: the separating key comes down into child, the sibling's last key goes up
+		if(i > 0 && node.children[i - 1].n > minKeys)
+		{
+			Node sibling = node.children[i - 1];
+			System.arraycopy(child.keys, 0, child.keys, 1, child.n);
+			child.keys[0] = node.keys[i - 1];
+			if(!child.leaf())
+			{
+				System.arraycopy(child.children, 0, child.children, 1, child.n + 1);
+				child.children[0] = sibling.children[sibling.n];
+				sibling.children[sibling.n] = null;
+			}
+			child.n++;
+			node.keys[i - 1] = sibling.keys[sibling.n - 1];
+			sibling.keys[--sibling.n] = null;
+			return i;
+		}
+
+		//borrow from the right sibling, the mirror image
+		if(i < node.n && node.children[i + 1].n > minKeys)
+		{
+			Node sibling = node.children[i + 1];
+			child.keys[child.n] = node.keys[i];
+			if(!child.leaf())
+			{
+				child.children[child.n + 1] = sibling.children[0];
+				System.arraycopy(sibling.children, 1, sibling.children, 0, sibling.n);
+				sibling.children[sibling.n] = null;
+			}
+			child.n++;
+			node.keys[i] = sibling.keys[0];
+			removeKey(sibling, 0);
+			return i;
+		}
+
+		//nobody can spare a key, merge with a sibling
+		if(i < node.n)
+		{
+			merge(node, i);
+			return i;
+		}
+		merge(node, i - 1);
+		return i - 1;
+	}
+
+	//splits the full child children[i] of node around its middle key, which moves up into node
+	private void splitChild(Node node, int i)
+	{
+		Node full = node.children[i];
+		Node right = new Node(maxKeys, full.leaf());
+
+		right.n = minKeys;
+		System.arraycopy(full.keys, minKeys + 1, right.keys, 0, minKeys);
+		if(!full.leaf())
+		{
+			System.arraycopy(full.children, minKeys + 1, right.children, 0, minKeys + 1);
+			Arrays.fill(full.children, minKeys + 1, full.children.length, null);
+		}
+		Object middle = full.keys[minKeys];
+		Arrays.fill(full.keys, minKeys, full.n, null);
+		full.n = minKeys;
+
+		System.arraycopy(node.children, i + 1, node.children, i + 2, node.n - i);
+		node.children[i + 1] = right;
+		System.arraycopy(node.keys, i, node.keys, i + 1, node.n - i);
+		node.keys[i] = middle;
+		node.n++;
+	}
+
+	//merges children[i + 1] of node and the key between them into children[i]. both children have minKeys keys
+	//so the result is exactly full
+	private void merge(Node node, int i)
+	{
+		Node left = node.children[i], right = node.children[i + 1];
+
+		left.keys[left.n] = node.keys[i];
+		System.arraycopy(right.keys, 0, left.keys, left.n + 1, right.n);
+		if(!left.leaf())
+		{
+			System.arraycopy(right.children, 0, left.children, left.n + 1, right.n + 1);
+		}
+		left.n += right.n + 1;
+
+		removeKey(node, i);
+		System.arraycopy(node.children, i + 2, node.children, i + 1, node.n - i);
+		node.children[node.n + 1] = null;
+	}
+
+	//removes keys[i] from node by shifting the keys after it one slot to the left. children are left alone
+	private static void removeKey(Node node, int i)
+	{
+		System.arraycopy(node.keys, i + 1, node.keys, i, node.n - i - 1);
+		node.keys[--node.n] = null;
+	}
+
+	//binary search over the keys of one node. returns the index of elem if it is there, otherwise
+	//-(insertion point) - 1 like Arrays.binarySearch, where the insertion point is also the child to descend into
+	private int search(Node node, T elem)
+	{
+		int lo = 0, hi = node.n - 1;
+		while(lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			int cmp = elem.compareTo((T) node.keys[mid]);
+			if(cmp < 0)
+			{
+				hi = mid - 1;
+			}
+			else if(cmp > 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -lo - 1;
+	}
+
+	//returns a lazy iterator for the given order, same orders as BinaryTree. in order gives the keys sorted. pre,
+	//post and level order visit whole nodes: all keys of a node are returned together, left to right, before its
+	//children (pre order, level order) or after them (post order). the iterators throw a
+	//ConcurrentModificationException if the tree is changed while they are in use
+	public Iterator <T> traverse(BinaryTree.TreeTraversalOrder order)
+	{
+		switch(order)
+		{
+		case PRE_ORDER:
+			return nodeOrderTraversal(false);
+		case IN_ORDER:
+			return inOrderTraversal();
+		case POST_ORDER:
+			return postOrderTraversal();
+		case LEVEL_ORDER:
+			return nodeOrderTraversal(true);
+			default:
+				return null;
+		}
+	}
+
+	//the position we are at inside one node while walking the tree
+	private static class Frame
+	{
+		final Node node;
+		int next = 0; //next key (in order) or next child (post order) to visit
+
+		Frame(Node node)
+		{
+			this.node = node;
+		}
+	}
+
+	//in order: the stack holds one frame per level, the path down to the next key
+	private Iterator <T> inOrderTraversal()
+	{
+		final int expectedModCount = modCount;
+		final ArrayDeque<Frame> stack = new ArrayDeque<>();
+		pushLeftSpine(stack, root);
+
+		return new Iterator <T> ()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				if(expectedModCount != modCount) throw new ConcurrentModificationException();
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public T next()
+			{
+				if(!hasNext()) throw new NoSuchElementException();
+				Frame frame = stack.peek();
+				T data = (T) frame.node.keys[frame.next++];
+				if(frame.next == frame.node.n)
+				{
+					stack.pop();
+				}
+				//the keys between this one and the next key of the node are in the child right after it
+				if(!frame.node.leaf())
+				{
+					pushLeftSpine(stack, frame.node.children[frame.next]);
+				}
+				return data;
+			}
+		};
+	}
+
+	private void pushLeftSpine(ArrayDeque<Frame> stack, Node node)
+	{
+		while(node != null && node.n > 0)
+		{
+			stack.push(new Frame(node));
+			node = node.leaf() ? null : node.children[0];
+		}
+	}
+
+	//post order: a frame for every node on the path down, each remembering which child to visit next. a node's keys
+	//are returned once all of its children are done
+	private Iterator <T> postOrderTraversal()
+	{
+		final int expectedModCount = modCount;
+		final ArrayDeque<Frame> stack = new ArrayDeque<>();
+		if(root != null)
+		{
+			stack.push(new Frame(root));
+		}
+
+		return new Iterator <T> ()
+		{
+			Node current = null; //node whose keys we are returning
+			int pos = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				if(expectedModCount != modCount) throw new ConcurrentModificationException();
+				return (current != null && pos < current.n) || !stack.isEmpty();
+			}
+
+			@Override
+			public T next()
+			{
+				if(!hasNext()) throw new NoSuchElementException();
+				if(current == null || pos == current.n)
+				{
+					//keep stepping into the next unvisited child until we reach a node whose children are all done
+					while(true)
+					{
+						Frame frame = stack.peek();
+						if(!frame.node.leaf() && frame.next <= frame.node.n)
+						{
+							stack.push(new Frame(frame.node.children[frame.next++]));
+						}
+						else
+						{
+							current = stack.pop().node;
+							pos = 0;
+							break;
+						}
+					}
+				}
+				return (T) current.keys[pos++];
+			}
+		};
+	}
+
+	//pre order with a stack or level order with a queue. either way we take a node, return its keys, and then add
+	//its children
+	private Iterator <T> nodeOrderTraversal(final boolean levelOrder)
+	{
+		final int expectedModCount = modCount;
+		final ArrayDeque<Node> nodes = new ArrayDeque<>();
+		if(root != null)
+		{
+			nodes.add(root);
+		}
+
+		return new Iterator <T> ()
+		{
+			Node current = null;
+			int pos = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				if(expectedModCount != modCount) throw new ConcurrentModificationException();
+				return (current != null && pos < current.n) || !nodes.isEmpty();
+			}
+
+			@Override
+			public T next()
+			{
+				if(!hasNext()) throw new NoSuchElementException();
+				if(current == null || pos == current.n)
+				{
+					current = levelOrder ? nodes.pollFirst() : nodes.pop();
+					pos = 0;
+					if(!current.leaf())
+					{
+						if(levelOrder)
+						{
+							for(int i = 0; i <= current.n; i++) nodes.addLast(current.children[i]);
+						}
+						else
+						{
+							//pushed last to first so the first child comes off the stack first
+							for(int i = current.n; i >= 0; i--) nodes.push(current.children[i]);
+						}
+					}
+				}
+				return (T) current.keys[pos++];
+			}
+		};
+	}
+}
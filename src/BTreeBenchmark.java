@@ -0,0 +1,121 @@
+/*
+ * Benchmark comparing lookups in BTree against BinaryTree.
+ *
+ *     Run it with a plain java command, no harness needed:
+ *
+ *         java BTreeBenchmark [size size ...]
+ *
+ *     For every size it builds a BinaryTree and BTrees with a few fanouts from the same random keys, then times
+ *     contains() over a shuffled mix of keys that are in the tree and keys that aren't. Every lookup starts at the
+ *     root and ends somewhere random, so once the tree is bigger than the CPU caches nearly every node visit is a
+ *     cache miss.
+ *
+ *     Java can't read the hardware cache miss counters, so next to the latency we print the height of each tree:
+ *     the number of nodes a lookup visits on its way down, and with it the most cache misses a lookup can take
+ *     (a B-tree node's keys are next to each other, so binary searching them mostly stays in a few cache lines).
+ *     For the real counters run it under perf stat -e cache-misses.
+ *
+ *     Both trees hold Integer objects, so every comparison also loads the Integer a slot points at. That miss is
+ *     the same for both trees and narrows the gap. A B-tree of primitive keys would gain more.
+ *
+ *     Big sizes need a big heap, a BinaryTree of Integers costs around 60 bytes per key:
+ *
+ *         java -Xmx4g BTreeBenchmark 10000 1000000 10000000
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+public class BTreeBenchmark
+{
+	private static final int[] FANOUTS = {8, 32, 128};
+	private static final int LOOKUPS = 2_000_000;
+	private static final int ROUNDS = 5; //the first round is warmup and isn't reported
+
+	//results are counted into here so the JIT can't drop the lookups
+	private static long sink = 0;
+
+	public static void main(String[] args)
+	{
+		int[] sizes = {10_000, 100_000, 1_000_000};
+		if(args.length > 0)
+		{
+			sizes = new int[args.length];
+			for(int i = 0; i < args.length; i++)
+			{
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%-12s %-16s %8s %14s%n", "size", "tree", "height", "ns per lookup");
+		for(int size : sizes)
+		{
+			run(size);
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+
+	private static void run(int size)
+	{
+		Random random = new Random(size);
+		List<Integer> keys = new ArrayList<Integer>(size);
+		for(int i = 0; i < size; i++)
+		{
+			keys.add(random.nextInt());
+		}
+
+		//half the lookups hit a key in the tree, half most likely miss
+		Integer[] lookups = new Integer[LOOKUPS];
+		for(int i = 0; i < LOOKUPS; i++)
+		{
+			lookups[i] = (i & 1) == 0 ? keys.get(random.nextInt(size)) : Integer.valueOf(random.nextInt());
+		}
+
+		//insert in random order so the nodes end up scattered over the heap like they would in a real workload
+		Collections.shuffle(keys, random);
+		BinaryTree<Integer> binary = new BinaryTree<Integer>();
+		for(Integer key : keys)
+		{
+			binary.add(key);
+		}
+		report(size, "BinaryTree", binary.height(), lookups, binary::contains);
+		binary = null;
+
+		for(int fanout : FANOUTS)
+		{
+			BTree<Integer> btree = new BTree<Integer>(fanout);
+			for(Integer key : keys)
+			{
+				btree.add(key);
+			}
+			report(size, "BTree(" + fanout + ")", btree.height(), lookups, btree::contains);
+		}
+	}
+
+	private static void report(int size, String name, int height, Integer[] lookups, Predicate<Integer> contains)
+	{
+		long best = Long.MAX_VALUE;
+		for(int round = 0; round < ROUNDS; round++)
+		{
+			long start = System.nanoTime();
+			int hits = 0;
+			for(Integer key : lookups)
+			{
+				if(contains.test(key))
+				{
+					hits++;
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+			sink += hits;
+			if(round > 0)
+			{
+				best = Math.min(best, elapsed);
+			}
+		}
+		System.out.printf("%-12d %-16s %8d %14.1f%n", size, name, height, (double) best / lookups.length);
+	}
+}
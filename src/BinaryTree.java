@@ -320,8 +320,66 @@
  *                   
  *             In a Level Order traversal, we want to print the nodes as they appear one layer at a time
  *     
+ * Keeping the tree balanced (AVL)
+ *
+ *     The worst case above happens when elements arrive in sorted order. Every new element becomes the right child
+ *     of the previous one and the "tree" is really a linked list:
+ *
+ *     1
+ *      \
+ *       2
+ *        \
+ *         3
+ *
+ *     To guarantee O(log(n)) height this implementation is an AVL tree. Every node remembers its height and its
+ *     balance factor, bf = height(right subtree) - height(left subtree). The AVL invariant is that every node has
+ *     bf of -1, 0 or +1. After every insertion or removal we walk back up the path we came down, recompute the
+ *     height and bf of each node, and if some node ended up with bf of -2 or +2 we fix it with a rotation.
+ *
+ *     A right rotation lifts the left child into its parent's place:
+ *
+ *           C             B
+ *          /             / \
+ *         B     ->      A   C
+ *        /
+ *       A
+ *
+ *     There are four cases. Left-left (bf = -2 and the left child leans left or is even) takes one right rotation,
+ *     right-right is the mirror image. Left-right (bf = -2 and the left child leans right) first rotates the left
+ *     child left, which turns it into the left-left case. Right-left is again the mirror image.
+ *
+ *     An AVL tree with n nodes has height at most about 1.44 * log2(n), so insert, remove and search are all
+ *     O(log(n)) in the worst case, and height() is O(1) because the root already knows it.
+ *
+ * Order statistics
+ *
+ *     Every node also remembers the size of its subtree (the number of nodes below it, itself included). That is
+ *     enough to find the k-th smallest element without visiting the others: if the left subtree holds more than k
+ *     nodes the answer is in there, if it holds exactly k the answer is the node itself, and otherwise we skip the
+ *     left subtree and the node and look for the (k - size(left) - 1)-th smallest element on the right:
+ *
+ *                 8 (size 5)
+ *                / \
+ *       (size 3) 4   9 (size 1)        select(3): size(left of 8) = 3, so the answer is 8
+ *              / \                     select(1): go left to 4, size(left of 4) = 1, so the answer is 4
+ *             2   6
+ *
+ *     rank(x), the number of elements smaller than x, is the same walk the other way around: every time we go right
+ *     we add the size of the left subtree plus one for the node we passed. Sizes change on every node of the path
+ *     of an insertion or removal, and a rotation only has to recompute the two nodes it moves, so both select and
+ *     rank are O(log(n)).
+ *
  */
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
 // this binary tree is a generic type binary search tree
 // notes how this binary search tree takes any type that is comparable
 // we need comparable types so we know how to insert them into the BST accordingly
@@ -330,15 +388,34 @@ public class BinaryTree <T extends Comparable<T>>
 	// tracks the number of nodes in this BST
     private int nodeCount = 0;
     
+    // bumped on every successful add or remove so iterators can detect that the tree changed under them
+    private int modCount = 0;
+    
+    // true while morrisInOrder has threads in the tree. add and remove refuse to run then, they would follow the
+    // threads around in circles
+    private boolean threaded = false;
+    
     // this BST is a rooted tree so we maintain a handle on the root node
     private Node root = null;
     
+    // scratch stack of the nodes visited by the current add or remove, from the root down. an AVL tree with
+    // 2^31 nodes is less than 46 levels tall, so this almost never has to grow
+    @SuppressWarnings("unchecked")
+    private Node [] path = (Node[]) new BinaryTree<?>.Node[48];
+    
     // internal node containing node references
     // and the actual node data
     private class Node
     {
     	T data; // some comparable type T
     	Node left, right;
+    	
+    	// height of the subtree rooted at this node (a leaf has height 1), its balance factor,
+    	// height(right) - height(left), and the number of nodes in the subtree. all are kept up to date by update()
+    	int height = 1;
+    	int bf = 0;
+    	int size = 1;
+    	
     	public Node(Node left, Node right, T elem)
     	{
     		this.data = elem;
@@ -347,6 +424,70 @@ public class BinaryTree <T extends Comparable<T>>
     	}
     }
     
+    // builds a tree from a list that is already sorted in increasing order, in O(n). duplicates are dropped.
+    // this is a lot cheaper than n calls to add(): no comparisons beyond checking the order, no rotations, and
+    // the result is perfectly balanced
+    public static <T extends Comparable<T>> BinaryTree<T> fromSorted(List<? extends T> sorted)
+    {
+    	if(sorted == null) throw new IllegalArgumentException("Input cannot be null");
+    	Object[] elems = sorted.toArray();
+    	for(int i = 1; i < elems.length; i++)
+    	{
+    		if(compare(elems[i - 1], elems[i]) > 0) throw new IllegalArgumentException("Input is not sorted at index " + i);
+    	}
+    	return build(elems);
+    }
+    
+    // builds a tree from any collection of elements. they are sorted first (in parallel for large inputs), then
+    // the tree is built in O(n) like fromSorted. duplicates are dropped
+    public static <T extends Comparable<T>> BinaryTree<T> bulkLoad(Collection<? extends T> elems)
+    {
+    	if(elems == null) throw new IllegalArgumentException("Input cannot be null");
+    	Object[] sorted = elems.toArray();
+    	Arrays.parallelSort(sorted, BinaryTree::compare);
+    	return build(sorted);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> int compare(Object a, Object b)
+    {
+    	return ((T) a).compareTo((T) b);
+    }
+    
+    // removes duplicates from a sorted array in place and builds the tree from what's left
+    private static <T extends Comparable<T>> BinaryTree<T> build(Object[] sorted)
+    {
+    	int len = 0;
+    	for(int i = 0; i < sorted.length; i++)
+    	{
+    		if(len == 0 || compare(sorted[len - 1], sorted[i]) != 0)
+    		{
+    			sorted[len++] = sorted[i];
+    		}
+    	}
+    	
+    	BinaryTree<T> tree = new BinaryTree<>();
+    	tree.root = tree.build(sorted, 0, len - 1);
+    	tree.nodeCount = len;
+    	return tree;
+    }
+    
+    // the middle element becomes the root and the halves on either side become its subtrees. both halves differ
+    // in size by at most one, so every node ends up with a balance factor of -1, 0 or +1 and the tree is a valid
+    // AVL tree. each node is created and updated once, O(n) in total, and the recursion is only O(log(n)) deep
+    @SuppressWarnings("unchecked")
+    private Node build(Object[] sorted, int lo, int hi)
+    {
+    	if(lo > hi)
+    	{
+    		return null;
+    	}
+    	int mid = (lo + hi) >>> 1;
+    	Node node = new Node(build(sorted, lo, mid - 1), build(sorted, mid + 1, hi), (T) sorted[mid]);
+    	update(node);
+    	return node;
+    }
+    
     // check if this binary tree is empty
     public boolean isEmpty()
     {
@@ -360,131 +501,273 @@ public class BinaryTree <T extends Comparable<T>>
     	return nodeCount;
     }
     
-    // add an element to this binary tree. returns true if we successfully perform an insertion
+    // add an element to this binary tree. returns true if we successfully perform an insertion.
+    // we walk down from the root once, comparing elem to each node on the way. finding an equal node tells us
+    // elem is a duplicate without a separate contains() pass, and reaching a null link tells us where the new
+    // leaf goes. the nodes we passed are remembered in path so we can rebalance them afterwards without recursion
     public boolean add(T elem)
     {
-    	// check if the value already exists in this BST, if it does ignore adding it
-    	if(contains(elem))
+    	if(threaded) throw new ConcurrentModificationException();
+    	if(root == null)
     	{
-    		return false;
-    	}
-    	else
-    	{
-    		root = add(root, elem);
+    		root = new Node(null, null, elem);
     		nodeCount++;
+    		modCount++;
     		return true;
     	}
-    }
-    
-    // private method to recursively add a value in the binary tree
-    private Node add(Node node, T elem)
-    {
-    	// base case: found a leaf node
-    	if(node == null)
-    	{
-    		node = new Node(null, null, elem);
-    	}
-    	else
+    	
+    	int depth = 0;
+    	Node node = root;
+    	while(true)
     	{
-    		//place lower elements values in left subtree
-    		if(elem.compareTo(node.data) < 0)
+    		int cmp = elem.compareTo(node.data);
+    		
+    		// the value already exists in this BST, ignore adding it
+    		if(cmp == 0)
+    		{
+    			return false;
+    		}
+    		
+    		push(depth++, node);
+    		
+    		// place lower element values in the left subtree and higher ones in the right subtree
+    		if(cmp < 0)
     		{
-    			node.left = add(node.left, elem);
+    			if(node.left == null)
+    			{
+    				node.left = new Node(null, null, elem);
+    				break;
+    			}
+    			node = node.left;
     		}
     		else
     		{
-    			node.right = add(node.right, elem);
+    			if(node.right == null)
+    			{
+    				node.right = new Node(null, null, elem);
+    				break;
+    			}
+    			node = node.right;
     		}
     	}
-    	return node;
+    	
+    	nodeCount++;
+    	modCount++;
+    	retrace(depth, +1);
+    	return true;
     }
     
-    // remove a value from this binary tree, if it exists
+    // remove a value from this binary tree, if it exists. like add this is a single walk down from the root
     public boolean remove(T elem)
     {
-    	// make sure the node we want to remove actually exists before we remove it
-    	if(contains(elem))
+    	if(threaded) throw new ConcurrentModificationException();
+    	// find phase: walk down until we hit the node or a null link
+    	int depth = 0;
+    	Node node = root;
+    	while(node != null)
     	{
-    		root = remove(root, elem);
-    		nodeCount--;
-    		return true;
+    		int cmp = elem.compareTo(node.data);
+    		if(cmp == 0)
+    		{
+    			break;
+    		}
+    		push(depth++, node);
+    		
+    		// dig into the left subtree if the value we're looking for is smaller than the current value,
+    		// otherwise dig into the right subtree
+    		node = cmp < 0 ? node.left : node.right;
     	}
-    	return false;
-    }
-    
-    // recursive method to remove node
-    private Node remove(Node node, T elem)
-    {
+    	
+    	// reached the bottom, the value isn't in the tree
     	if(node == null)
     	{
-    		return null;
+    		return false;
     	}
     	
-    	int cmp = elem.compareTo(node.data);
+    	// when removing a node with two links the successor of the node being removed can either be the largest
+    	// value in the left subtree or the smallest value in the right subtree. we use the smallest value in the
+    	// right subtree which we find by going as far left as possible in the right subtree. we copy its data into
+    	// node and then remove the successor instead, which has no left child. we keep recording the path so the
+    	// nodes between node and the successor get rebalanced too
+    	if(node.left != null && node.right != null)
+    	{
+    		push(depth++, node);
+    		Node successor = node.right;
+    		while(successor.left != null)
+    		{
+    			push(depth++, successor);
+    			successor = successor.left;
+    		}
+    		node.data = successor.data;
+    		node = successor;
+    	}
     	
-    	// dig into left subtree, the value we're looking for is smaller than the current value
-    	if(cmp < 0)
+    	// node now has at most one child, so we just swap node with that child (or null if it's a leaf)
+    	Node child = node.left != null ? node.left : node.right;
+    	if(depth == 0)
     	{
-    		node.left = remove(node.left, elem);
+    		root = child;
     	}
-    	// dig into right subtree, the value we're looking for is greater than the current value
-    	else if(cmp > 0)
+    	else
     	{
-    		node.right = remove(node.right, elem);
+    		Node parent = path[depth - 1];
+    		if(parent.left == node)
+    		{
+    			parent.left = child;
+    		}
+    		else
+    		{
+    			parent.right = child;
+    		}
+    	}
+    	node.data = null;
+    	node.left = node.right = null;
+    	
+    	nodeCount--;
+    	modCount++;
+    	retrace(depth, -1);
+    	return true;
+    }
+    
+    // remembers the node at the given depth of the current descent, growing the path array if we need to
+    private void push(int depth, Node node)
+    {
+    	if(depth == path.length)
+    	{
+    		path = Arrays.copyOf(path, path.length * 2);
     	}
-    	// found the node we wish to remove
-    	else 
+    	path[depth] = node;
+    }
+    
+    // walks back up the first depth nodes of path, from the deepest to the root, fixing heights and balance
+    // factors and rotating where needed. once a subtree ends up exactly as tall as it was before the change, no
+    // node above it can need a rotation, so from there on we only add sizeDelta (+1 for an insertion, -1 for a
+    // removal) to the subtree size of the remaining ancestors
+    private void retrace(int depth, int sizeDelta)
+    {
+    	for(int k = depth - 1; k >= 0; k--)
     	{
-    		// this is the case with only a right subtree or no subtree at all. in this situation just
-    		// swap the node we wish to remove with its original child.
-    		if(node.left == null)
+    		Node node = path[k];
+    		path[k] = null; // don't keep nodes reachable from the path after we are done
+    		int oldHeight = node.height;
+    		update(node);
+    		Node fixed = balance(node);
+    		
+    		// a rotation replaced node with one of its children, hook the new subtree root into node's parent
+    		if(fixed != node)
     		{
-    			Node rightChild = node.right;
-    			
-    			node.data = null;
-    			node = null;
-    			
-    			return rightChild;
-    			
-    			// this is the case with only a left subtree or no subtree at all. in this situation we
-    			// just swap the node we wish to remove with its left child
+    			if(k == 0)
+    			{
+    				root = fixed;
+    			}
+    			else if(path[k - 1].left == node)
+    			{
+    				path[k - 1].left = fixed;
+    			}
+    			else
+    			{
+    				path[k - 1].right = fixed;
+    			}
     		}
-    		else if(node.right == null)
+    		
+    		if(fixed.height == oldHeight)
     		{
-    			Node leftChild = node.left;
-    			node.data = null;
-    			node = null;
-    			
-    			return leftChild;
-    			
-    			// when removing a node from a binary search tree with two links the successor of the node
-    			// being removed can either be the largest value in the left subtree or the smallest value
-    			// in the right subtree. in this implementation we have decided to find the smallest value
-    			// in the right subtree which can be found by traversing as far left as possible in the 
-    			// right subtree.
+    			for(int j = k - 1; j >= 0; j--)
+    			{
+    				path[j].size += sizeDelta;
+    				path[j] = null;
+    			}
+    			return;
     		}
-    		else
+    	}
+    }
+    
+    // recomputes the height, balance factor and subtree size of node from its children
+    private void update(Node node)
+    {
+    	int leftHeight = node.left == null ? 0 : node.left.height;
+    	int rightHeight = node.right == null ? 0 : node.right.height;
+    	node.height = 1 + Math.max(leftHeight, rightHeight);
+    	node.bf = rightHeight - leftHeight;
+    	node.size = 1 + size(node.left) + size(node.right);
+    }
+    
+    // subtree size of a node that may be null
+    private int size(Node node)
+    {
+    	return node == null ? 0 : node.size;
+    }
+    
+    // restores the AVL invariant at node if its balance factor is -2 or +2 and returns the new subtree root
+    private Node balance(Node node)
+    {
+    	// left heavy subtree
+    	if(node.bf == -2)
+    	{
+    		if(node.left.bf <= 0)
     		{
-    			// find leftmost node in the right subtree
-    			Node tmp = digLeft(node.right);
-    			
-    			// swap the data
-    			node.data = tmp.data;
-    			
-    			// go into the right subtree and remove the leftmost node we found and swapped data with.
-    			// this prevents us from having two nodes in our tree with the same value
-    			node.right = remove(node.right, tmp.data);
-    			
-    			// if instead we wanted to find the largest node in the left subtree as opposed to the
-    			// smallest node in the right subtree here is what we could do:
-    			// Node tmp = digRight(node.left);
-    			// node.data = tmp.data;
-    			// node.left = remove(node.left, tmp.data);
+    			return leftLeftCase(node);
     		}
+    		return leftRightCase(node);
     	}
+    	// right heavy subtree
+    	else if(node.bf == +2)
+    	{
+    		if(node.right.bf >= 0)
+    		{
+    			return rightRightCase(node);
+    		}
+    		return rightLeftCase(node);
+    	}
+    	// node has a balance factor of -1, 0 or +1 which is fine
     	return node;
     }
     
+    private Node leftLeftCase(Node node)
+    {
+    	return rightRotation(node);
+    }
+    
+    private Node leftRightCase(Node node)
+    {
+    	node.left = leftRotation(node.left);
+    	return leftLeftCase(node);
+    }
+    
+    private Node rightRightCase(Node node)
+    {
+    	return leftRotation(node);
+    }
+    
+    private Node rightLeftCase(Node node)
+    {
+    	node.right = rightRotation(node.right);
+    	return rightRightCase(node);
+    }
+    
+    // lifts the right child of node into its place. node becomes the left child of its old right child
+    private Node leftRotation(Node node)
+    {
+    	Node newParent = node.right;
+    	node.right = newParent.left;
+    	newParent.left = node;
+    	// node is now below newParent so it has to be updated first
+    	update(node);
+    	update(newParent);
+    	return newParent;
+    }
+    
+    // lifts the left child of node into its place. node becomes the right child of its old left child
+    private Node rightRotation(Node node)
+    {
+    	Node newParent = node.left;
+    	node.left = newParent.right;
+    	newParent.right = node;
+    	update(node);
+    	update(newParent);
+    	return newParent;
+    }
+    
     // helper method to find the leftmost node
     private Node digLeft(Node node)
     {
@@ -507,63 +790,249 @@ public class BinaryTree <T extends Comparable<T>>
     	return cur;
     }
     
-    // returns true if the element exists in the tree
-    public bool contains(T elem)
+    // returns true if the element exists in the tree. a simple loop down from the root, no recursion
+    public boolean contains(T elem)
+    {
+    	Node node = root;
+    	while(node != null)
+    	{
+    		int cmp = elem.compareTo(node.data);
+    		
+    		// we found the value we were looking for
+    		if(cmp == 0)
+    		{
+    			return true;
+    		}
+    		
+    		// dig into the left subtree if the value we're looking for is smaller than the current value,
+    		// otherwise dig into the right subtree
+    		node = cmp < 0 ? node.left : node.right;
+    	}
+    	
+    	// reached the bottom, value not found
+    	return false;
+    }
+    
+    // returns the smallest element in the tree, or null if the tree is empty
+    public T min()
     {
-    	return contains(root, elem);
+    	return root == null ? null : digLeft(root).data;
     }
     
-    // private recursive method to find an element in the tree
-    private boolean contains(Node node, T elem)
+    // returns the largest element in the tree, or null if the tree is empty
+    public T max()
     {
-    	// base case: reached bottom, value not found
-    	if(node == null)
+    	return root == null ? null : digRight(root).data;
+    }
+    
+    // returns the largest element that is less than or equal to elem, or null if there is none
+    public T floor(T elem)
+    {
+    	return below(elem, true);
+    }
+    
+    // returns the largest element that is strictly less than elem, or null if there is none
+    public T lower(T elem)
+    {
+    	return below(elem, false);
+    }
+    
+    // returns the smallest element that is greater than or equal to elem, or null if there is none
+    public T ceiling(T elem)
+    {
+    	return above(elem, true);
+    }
+    
+    // returns the smallest element that is strictly greater than elem, or null if there is none
+    public T higher(T elem)
+    {
+    	return above(elem, false);
+    }
+    
+    // one walk down from the root. every node smaller than elem (or equal, if inclusive) is a candidate and the
+    // answer can only be a bigger one, so we remember it and go right. otherwise the answer is to the left
+    private T below(T elem, boolean inclusive)
+    {
+    	T best = null;
+    	Node node = root;
+    	while(node != null)
     	{
-    		return false;
+    		int cmp = elem.compareTo(node.data);
+    		if(cmp > 0 || (inclusive && cmp == 0))
+    		{
+    			best = node.data;
+    			if(cmp == 0)
+    			{
+    				break;
+    			}
+    			node = node.right;
+    		}
+    		else
+    		{
+    			node = node.left;
+    		}
+    	}
+    	return best;
+    }
+    
+    // mirror image of below()
+    private T above(T elem, boolean inclusive)
+    {
+    	T best = null;
+    	Node node = root;
+    	while(node != null)
+    	{
+    		int cmp = elem.compareTo(node.data);
+    		if(cmp < 0 || (inclusive && cmp == 0))
+    		{
+    			best = node.data;
+    			if(cmp == 0)
+    			{
+    				break;
+    			}
+    			node = node.left;
+    		}
+    		else
+    		{
+    			node = node.right;
+    		}
     	}
+    	return best;
+    }
+    
+    // returns a lazy iterator over the elements in [from, to) in increasing order. it starts with one walk down to
+    // from that keeps the nodes we still have to come back to, O(log(n)), and then continues like the in order
+    // iterator until it reaches to, so reading k elements costs O(log(n) + k) and the rest of the tree is never
+    // touched. it throws a ConcurrentModificationException if the tree is changed while it is in use
+    public Iterator <T> range(T from, T to)
+    {
+    	if(from.compareTo(to) > 0) throw new IllegalArgumentException("From: " + from + " is greater than To: " + to);
     	
-    	int cmp = elem.compareTo(node.data);
+    	final int expectedModCount = modCount;
+    	final ArrayDeque<Node> stack = new ArrayDeque<>();
     	
-    	// dig into the left subtree because the value we're looking for is smaller than the current value
-    	if(cmp < 0)
+    	// every node on the way down that is >= from still has to be printed, after its left subtree. nodes smaller
+    	// than from are skipped together with their left subtree
+    	Node node = root;
+    	while(node != null)
     	{
-    		return contains(node.left, elem);
+    		if(node.data.compareTo(from) < 0)
+    		{
+    			node = node.right;
+    		}
+    		else
+    		{
+    			stack.push(node);
+    			node = node.left;
+    		}
     	}
-    	// dig into the right subtree because the value we're looking for is greater than the current value
-    	else if(cmp > 0)
+    	
+    	return new Iterator <T> ()
+    	{
+    		@Override
+    		public boolean hasNext()
+    		{
+    			if(expectedModCount != modCount) throw new ConcurrentModificationException();
+    			return !stack.isEmpty() && stack.peek().data.compareTo(to) < 0;
+    		}
+    		
+    		@Override
+    		public T next()
+    		{
+    			if(!hasNext()) throw new NoSuchElementException();
+    			Node node = stack.pop();
+    			pushLeftSpine(stack, node.right);
+    			return node.data;
+    		}
+    	};
+    }
+    
+    // returns the k-th smallest element of the tree, counting from 0, so select(0) is the minimum and
+    // select(size() - 1) is the maximum. O(log(n)) using the subtree sizes
+    public T select(int k)
+    {
+    	if(k < 0 || k >= nodeCount) throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + nodeCount);
+    	
+    	Node node = root;
+    	while(true)
     	{
-    		return contains(node.right, elem);
+    		int leftSize = size(node.left);
+    		
+    		// the answer is in the left subtree
+    		if(k < leftSize)
+    		{
+    			node = node.left;
+    		}
+    		// exactly k nodes are smaller than this one
+    		else if(k == leftSize)
+    		{
+    			return node.data;
+    		}
+    		// skip the left subtree and this node, the answer is in the right subtree
+    		else
+    		{
+    			k -= leftSize + 1;
+    			node = node.right;
+    		}
     	}
-    	// we found the value we were looking for
-    	else 
+    }
+    
+    // returns the number of elements in the tree that are smaller than elem. elem doesn't have to be in the tree.
+    // if it is, it is returned by select(rank(elem)). O(log(n)) using the subtree sizes
+    public int rank(T elem)
+    {
+    	int rank = 0;
+    	Node node = root;
+    	while(node != null)
     	{
-    		return true;
+    		int cmp = elem.compareTo(node.data);
+    		
+    		// everything in the right subtree is bigger than elem, so only the left subtree can count
+    		if(cmp < 0)
+    		{
+    			node = node.left;
+    		}
+    		// found it, the nodes smaller than it are its left subtree plus whatever we counted on the way down
+    		else if(cmp == 0)
+    		{
+    			return rank + size(node.left);
+    		}
+    		// node and its whole left subtree are smaller than elem
+    		else
+    		{
+    			rank += size(node.left) + 1;
+    			node = node.right;
+    		}
     	}
+    	return rank;
     }
     
-    // computes the height of the tree, O(n)
+    // returns the height of the tree, O(1) since every node keeps track of the height of its subtree.
+    // an empty tree has height 0 and a single node has height 1
     public int height()
     {
-    	return height(root);
+    	return root == null ? 0 : root.height;
     }
     
-    // recursive helper method to compute the height of the tree
-    private int height(Node node)
+    // returns an immutable, read only copy of the current elements packed into a single array in Eytzinger
+    // layout (see FrozenBinaryTree). later changes to this tree don't affect the copy. O(n)
+    public FrozenBinaryTree<T> freeze()
     {
-    	// if we reach a leaf node, return 0
-    	if(node == null)
+    	Object[] sorted = new Object[nodeCount];
+    	int i = 0;
+    	Iterator<T> it = inOrderTraversal();
+    	while(it.hasNext())
     	{
-    		return 0;
+    		sorted[i++] = it.next();
     	}
-    	
-    	// otherwise return the maximum height of the left or right subtree. we do either left or right 
-    	// because either the left or the right subtree could be taller than the other.
-    	return Math.max(height(node.left), height(node.right)) + 1;
+    	return new FrozenBinaryTree<T>(sorted);
     }
     
     // this method returns an iterator for a given TreeTraversalOrder.
-    // you can traverse the tree in 4 different ways: preorder, inorder, postorder, and levelorder
-    public java.util.Iterator <T> traverse(TreeTraversalOrder order)
+    // you can traverse the tree in 4 different ways: preorder, inorder, postorder, and levelorder.
+    // all four iterators are lazy: they never copy the tree, they only keep the nodes they still have to come back
+    // to. they throw a ConcurrentModificationException if the tree is changed while they are in use
+    public Iterator <T> traverse(TreeTraversalOrder order)
     {
     	switch(order)
     	{
@@ -580,35 +1049,257 @@ public class BinaryTree <T extends Comparable<T>>
     	}
     }
     
-    // return as iterator to traverse the tree in preorder
-    private java.util.Iterator <T> preOrderTraversal() 
+    // return as iterator to traverse the tree in preorder. the stack holds the right children we still have to
+    // visit, so it never holds more than O(height) nodes
+    private Iterator <T> preOrderTraversal() 
+    {
+    	final int expectedModCount = modCount;
+    	final ArrayDeque<Node> stack = new ArrayDeque<>();
+    	if(root != null)
+    	{
+    		stack.push(root);
+    	}
+    	
+    	return new Iterator <T> ()
+    	{
+    		@Override
+    		public boolean hasNext()
+    		{
+    			if(expectedModCount != modCount) throw new ConcurrentModificationException();
+    			return !stack.isEmpty();
+    		}
+    		
+    		@Override
+    		public T next()
+    		{
+    			if(!hasNext()) throw new NoSuchElementException();
+    			Node node = stack.pop();
+    			
+    			// push right first so the left subtree comes off the stack first
+    			if(node.right != null) stack.push(node.right);
+    			if(node.left != null) stack.push(node.left);
+    			return node.data;
+    		}
+    	};
+    }
+    
+    // return as iterator to traverse the tree in order. the stack holds the path of nodes whose left subtree we are
+    // still inside of, O(height) nodes
+    private Iterator <T> inOrderTraversal() 
+    {
+    	final int expectedModCount = modCount;
+    	final ArrayDeque<Node> stack = new ArrayDeque<>();
+    	pushLeftSpine(stack, root);
+    	
+    	return new Iterator <T> ()
+    	{
+    		@Override
+    		public boolean hasNext()
+    		{
+    			if(expectedModCount != modCount) throw new ConcurrentModificationException();
+    			return !stack.isEmpty();
+    		}
+    		
+    		@Override
+    		public T next()
+    		{
+    			if(!hasNext()) throw new NoSuchElementException();
+    			Node node = stack.pop();
+    			
+    			// everything in the left subtree is done, so the next nodes come from the right subtree
+    			pushLeftSpine(stack, node.right);
+    			return node.data;
+    		}
+    	};
+    }
+    
+    // pushes node and then keeps going left, pushing every node on the way
+    private void pushLeftSpine(ArrayDeque<Node> stack, Node node)
+    {
+    	while(node != null)
+    	{
+    		stack.push(node);
+    		node = node.left;
+    	}
+    }
+    
+    // return as iterator to traverse the tree in post order. the stack holds the path from the root down to the
+    // next node to print, O(height) nodes
+    private Iterator <T> postOrderTraversal() 
+    {
+    	final int expectedModCount = modCount;
+    	final ArrayDeque<Node> stack = new ArrayDeque<>();
+    	pushFirstLeaf(stack, root);
+    	
+    	return new Iterator <T> ()
+    	{
+    		@Override
+    		public boolean hasNext()
+    		{
+    			if(expectedModCount != modCount) throw new ConcurrentModificationException();
+    			return !stack.isEmpty();
+    		}
+    		
+    		@Override
+    		public T next()
+    		{
+    			if(!hasNext()) throw new NoSuchElementException();
+    			Node node = stack.pop();
+    			
+    			// if we just finished the left subtree of our parent, its right subtree has to be printed before the
+    			// parent itself. if we just finished the right subtree the parent is next
+    			if(!stack.isEmpty())
+    			{
+    				Node parent = stack.peek();
+    				if(parent.left == node && parent.right != null)
+    				{
+    					pushFirstLeaf(stack, parent.right);
+    				}
+    			}
+    			return node.data;
+    		}
+    	};
+    }
+    
+    // pushes the path from node down to the first node post order prints, going left whenever we can and right
+    // otherwise
+    private void pushFirstLeaf(ArrayDeque<Node> stack, Node node)
     {
-    	// code
-    	return null;
+    	while(node != null)
+    	{
+    		stack.push(node);
+    		node = node.left != null ? node.left : node.right;
+    	}
     }
     
-    // return as iterator to traverse the tree in order
-    private java.util.Iterator <T> inOrderTraversal() 
+    // return as iterator to traverse the tree in level order. this is a BFS, so the queue holds up to one level of
+    // the tree at a time
+    private Iterator <T> levelOrderTraversal() 
     {
-    	// code
-    	return null;
+    	final int expectedModCount = modCount;
+    	final ArrayDeque<Node> queue = new ArrayDeque<>();
+    	if(root != null)
+    	{
+    		queue.offer(root);
+    	}
+    	
+    	return new Iterator <T> ()
+    	{
+    		@Override
+    		public boolean hasNext()
+    		{
+    			if(expectedModCount != modCount) throw new ConcurrentModificationException();
+    			return !queue.isEmpty();
+    		}
+    		
+    		@Override
+    		public T next()
+    		{
+    			if(!hasNext()) throw new NoSuchElementException();
+    			Node node = queue.poll();
+    			if(node.left != null) queue.offer(node.left);
+    			if(node.right != null) queue.offer(node.right);
+    			return node.data;
+    		}
+    	};
     }
     
-    // return as iterator to traverse the tree in post order
-    private java.util.Iterator <T> postOrderTraversal() 
+    // in order traversal that uses O(1) extra memory, no stack at all (Morris traversal). calls action on every
+    // element in increasing order.
+    // instead of remembering where to come back to after a left subtree, we temporarily point the right link of
+    // the rightmost node of that left subtree (the in order predecessor) back at the current node. following that
+    // "thread" later brings us back up, and we remove the thread on the way so the tree is restored as we go.
+    // every edge is walked at most three times so the whole traversal is still O(n).
+    //
+    // the tree is only whole again once the walk reaches the end, which is why this isn't an iterator: we always
+    // finish the walk ourselves. if action throws we still run the rest of the walk without calling it, so every
+    // thread is removed before the exception leaves this method. action must not use the tree at all while the
+    // walk is running: add and remove throw a ConcurrentModificationException, and searches could loop forever
+    public void morrisInOrder(Consumer<? super T> action)
     {
-    	// code
-    	return null;
+    	if(action == null) throw new NullPointerException();
+    	if(threaded) throw new ConcurrentModificationException();
+    	
+    	Node cur = root;
+    	threaded = true;
+    	try
+    	{
+    		while(cur != null)
+    		{
+    			Node visit = null;
+    			
+    			// nothing on the left, so cur is next. move on to its right subtree (or follow its thread up)
+    			if(cur.left == null)
+    			{
+    				visit = cur;
+    				cur = cur.right;
+    			}
+    			else
+    			{
+    				Node pred = predecessor(cur);
+    				
+    				// first time here: leave a thread back to cur and go do the left subtree
+    				if(pred.right == null)
+    				{
+    					pred.right = cur;
+    					cur = cur.left;
+    				}
+    				// second time here: the left subtree is done. remove the thread, cur is next
+    				else
+    				{
+    					pred.right = null;
+    					visit = cur;
+    					cur = cur.right;
+    				}
+    			}
+    			
+    			// cur already points at the next position, so if action throws the cleanup below picks up from there
+    			if(visit != null)
+    			{
+    				action.accept(visit.data);
+    			}
+    		}
+    	}
+    	finally
+    	{
+    		// only runs a step if we left the loop early. the same walk without visiting anything removes every
+    		// thread that is still in place
+    		while(cur != null)
+    		{
+    			if(cur.left == null)
+    			{
+    				cur = cur.right;
+    				continue;
+    			}
+    			Node pred = predecessor(cur);
+    			if(pred.right == null)
+    			{
+    				pred.right = cur;
+    				cur = cur.left;
+    			}
+    			else
+    			{
+    				pred.right = null;
+    				cur = cur.right;
+    			}
+    		}
+    		threaded = false;
+    	}
     }
     
-    // return as iterator to traverse the tree in level order
-    private java.util.Iterator <T> levelOrderTraversal() 
+    // rightmost node of cur's left subtree, stopping at a thread that already points back at cur
+    private Node predecessor(Node cur)
     {
-    	// code
-    	return null;
+    	Node pred = cur.left;
+    	while(pred.right != null && pred.right != cur)
+    	{
+    		pred = pred.right;
+    	}
+    	return pred;
     }
     
-    private enum TreeTraversalOrder
+    // the orders traverse() can walk the tree in
+    public enum TreeTraversalOrder
     {
     	PRE_ORDER,
     	IN_ORDER,
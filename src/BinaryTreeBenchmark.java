@@ -0,0 +1,222 @@
+/*
+ * Benchmark for BinaryTree under insert orders that break a plain binary search tree.
+ *
+ *     Run it with a plain java command, no harness needed:
+ *
+ *         java BinaryTreeBenchmark [size size ...]
+ *
+ *     For every size and every insert order it times, on a fresh tree:
+ *
+ *         add:      every key, in that order
+ *         contains: every key, in random order
+ *         remove:   every key, in the same order they were added
+ *
+ *     and prints height() right after the adds. The orders are:
+ *
+ *         sorted:   0 1 2 3 ...
+ *         reverse:  n-1 n-2 n-3 ...
+ *         zigzag:   0 n-1 1 n-2 2 ...        (alternately the smallest and the largest key left)
+ *         random:   a shuffle of 0..n-1
+ *
+ *     The first three turn a binary search tree without balancing into a linked list of height n, which is what
+ *     BinaryTree was before it became an AVL tree. To show that next to the AVL numbers the benchmark also builds
+ *     such an unbalanced tree (the old insert logic, kept below) and prints its height and add time. Building it is
+ *     O(n^2) for those orders, so that is only done for sizes up to UNBALANCED_LIMIT and shown as "-" above it.
+ *
+ *     Times are wall clock milliseconds of one run after a warmup run of the same workload.
+ */
+
+import java.util.Random;
+
+public class BinaryTreeBenchmark
+{
+	//largest size we build the unbalanced tree for
+	private static final int UNBALANCED_LIMIT = 20_000;
+
+	//results are counted into here so the JIT can't drop the lookups
+	private static long sink = 0;
+
+	public static void main(String[] args)
+	{
+		int[] sizes = {10_000, 1_000_000};
+		if(args.length > 0)
+		{
+			sizes = new int[args.length];
+			for(int i = 0; i < args.length; i++)
+			{
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%-10s %-8s %8s %9s %9s %9s %12s %12s%n",
+				"size", "order", "height", "add ms", "find ms", "remove ms", "old height", "old add ms");
+		for(int n : sizes)
+		{
+			Integer[] lookups = shuffled(n, new Random(n));
+			for(String order : new String[] {"sorted", "reverse", "zigzag", "random"})
+			{
+				Integer[] keys = keys(order, n);
+				run(keys, lookups); //warmup
+				run(n, order, keys, lookups);
+			}
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+
+	private static void run(int n, String order, Integer[] keys, Integer[] lookups)
+	{
+		long[] times = run(keys, lookups);
+		String oldHeight = "-", oldAdd = "-";
+		if(n <= UNBALANCED_LIMIT)
+		{
+			long start = System.nanoTime();
+			UnbalancedTree old = new UnbalancedTree();
+			for(Integer key : keys)
+			{
+				old.add(key);
+			}
+			oldAdd = String.format("%.1f", (System.nanoTime() - start) / 1e6);
+			oldHeight = Integer.toString(old.height());
+		}
+		System.out.printf("%-10d %-8s %8d %9.1f %9.1f %9.1f %12s %12s%n",
+				n, order, times[0], times[1] / 1e6, times[2] / 1e6, times[3] / 1e6, oldHeight, oldAdd);
+	}
+
+	//returns {height, add ns, contains ns, remove ns}
+	private static long[] run(Integer[] keys, Integer[] lookups)
+	{
+		BinaryTree<Integer> tree = new BinaryTree<Integer>();
+
+		long start = System.nanoTime();
+		for(Integer key : keys)
+		{
+			tree.add(key);
+		}
+		long add = System.nanoTime() - start;
+		int height = tree.height();
+
+		start = System.nanoTime();
+		int hits = 0;
+		for(Integer key : lookups)
+		{
+			if(tree.contains(key))
+			{
+				hits++;
+			}
+		}
+		long contains = System.nanoTime() - start;
+		sink += hits;
+
+		start = System.nanoTime();
+		for(Integer key : keys)
+		{
+			tree.remove(key);
+		}
+		long remove = System.nanoTime() - start;
+		sink += tree.size();
+
+		return new long[] {height, add, contains, remove};
+	}
+
+	private static Integer[] keys(String order, int n)
+	{
+		Integer[] keys = new Integer[n];
+		switch(order)
+		{
+		case "sorted":
+			for(int i = 0; i < n; i++) keys[i] = i;
+			break;
+		case "reverse":
+			for(int i = 0; i < n; i++) keys[i] = n - 1 - i;
+			break;
+		case "zigzag":
+			for(int i = 0, lo = 0, hi = n - 1; i < n; i++) keys[i] = (i & 1) == 0 ? lo++ : hi--;
+			break;
+		default:
+			keys = shuffled(n, new Random(-n));
+			break;
+		}
+		return keys;
+	}
+
+	//0..n-1 in random order
+	private static Integer[] shuffled(int n, Random random)
+	{
+		Integer[] keys = new Integer[n];
+		for(int i = 0; i < n; i++)
+		{
+			keys[i] = i;
+		}
+		for(int i = n - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			Integer tmp = keys[i];
+			keys[i] = keys[j];
+			keys[j] = tmp;
+		}
+		return keys;
+	}
+
+	//a binary search tree without any balancing, the way BinaryTree inserted before it became an AVL tree.
+	//iterative so a height of n doesn't overflow the stack
+	private static class UnbalancedTree
+	{
+		private static class Node
+		{
+			final int data;
+			Node left, right;
+
+			Node(int data)
+			{
+				this.data = data;
+			}
+		}
+
+		private Node root = null;
+		private int height = 0;
+
+		void add(int elem)
+		{
+			if(root == null)
+			{
+				root = new Node(elem);
+				height = 1;
+				return;
+			}
+			Node node = root;
+			int depth = 1;
+			while(true)
+			{
+				depth++;
+				if(elem < node.data)
+				{
+					if(node.left == null)
+					{
+						node.left = new Node(elem);
+						break;
+					}
+					node = node.left;
+				}
+				else if(elem > node.data)
+				{
+					if(node.right == null)
+					{
+						node.right = new Node(elem);
+						break;
+					}
+					node = node.right;
+				}
+				else
+				{
+					return;
+				}
+			}
+			height = Math.max(height, depth);
+		}
+
+		int height()
+		{
+			return height;
+		}
+	}
+}
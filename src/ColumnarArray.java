@@ -0,0 +1,382 @@
+/*
+ * What is columnar (struct of arrays) storage?
+ *
+ *     Say we store records with three fields: an int id, a long timestamp and a double price. Putting each record
+ *     in an object and the objects in an Array<T> is called "array of structs":
+ *
+ *         arr -> [ * ][ * ][ * ]
+ *                  |    |    |
+ *                  v    v    v
+ *            {id,ts,price} {id,ts,price} {id,ts,price}    (separate objects, each with its own header)
+ *
+ *     Every record pays for an object header and a pointer, and summing just the prices has to jump to every object
+ *     and drag the ids and timestamps through the cache along with it.
+ *
+ *     Columnar storage flips this around into a "struct of arrays". Each field gets its own primitive array and a
+ *     record is just an index into all of them:
+ *
+ *         id    -> [ 1    2    3    ]
+ *         ts    -> [ 100  105  230  ]
+ *         price -> [ 9.5  3.25 7.0  ]
+ *
+ *     A record now costs exactly the bytes of its fields, and a scan over one field is a tight loop over one
+ *     contiguous primitive array.
+ *
+ *     ColumnarArray grows like Array (double the capacity when it is full) and removes rows like Array (shift every
+ *     later row one slot to the left). A Row is a reusable cursor over one row, so reading rows through it never
+ *     allocates.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set field: O(1)
+ *     AddRow: O(1) amortized
+ *     RemoveAt: O(n * number of columns)
+ *     Column scans (sum, indexOf): O(n), one primitive array each
+ */
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class ColumnarArray
+{
+	//the primitive type of a column
+	public enum Type
+	{
+		INT,
+		LONG,
+		DOUBLE
+	}
+
+	private final Type [] types; //type of every column
+	private final int [] slot; //where each column lives inside the array of columns of its type
+
+	//the actual column storage, one primitive array per column
+	private int [][] ints;
+	private long [][] longs;
+	private double [][] doubles;
+
+	private int len = 0; //number of rows user thinks we have
+	private int capacity = 0; //rows every column array can hold
+
+	//constructor with room for 16 rows
+	public ColumnarArray(Type... columns)
+	{
+		this(16, columns);
+	}
+
+	//constructor with room for capacity rows. every argument after the capacity is the type of one column
+	public ColumnarArray(int capacity, Type... columns)
+	{
+		if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		if(columns == null || columns.length == 0) throw new IllegalArgumentException("At least one column is required");
+
+		types = columns.clone();
+		slot = new int[types.length];
+		int intCount = 0, longCount = 0, doubleCount = 0;
+		for(int c = 0; c < types.length; c++)
+		{
+			if(types[c] == null) throw new IllegalArgumentException("Column type cannot be null");
+			switch(types[c])
+			{
+			case INT:
+				slot[c] = intCount++;
+				break;
+			case LONG:
+				slot[c] = longCount++;
+				break;
+			default:
+				slot[c] = doubleCount++;
+				break;
+			}
+		}
+
+		this.capacity = capacity;
+		ints = new int[intCount][capacity];
+		longs = new long[longCount][capacity];
+		doubles = new double[doubleCount][capacity];
+	}
+
+	//number of rows
+	public int size()
+	{
+		return len;
+	}
+
+	//check if there are no rows
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//number of columns
+	public int columns()
+	{
+		return types.length;
+	}
+
+	//type of a column
+	public Type type(int col)
+	{
+		return types[col];
+	}
+
+	//appends a row with every field set to 0 and returns its index
+	public int addRow()
+	{
+		if(len == capacity)
+		{
+			grow();
+		}
+		for(int[] column : ints) column[len] = 0;
+		for(long[] column : longs) column[len] = 0;
+		for(double[] column : doubles) column[len] = 0;
+		return len++;
+	}
+
+	//removes a row by shifting every later row one slot to the left in each column, same as Array.removeAt
+	public void removeAt(int row)
+	{
+		checkRow(row);
+		int moved = len - row - 1;
+		for(int[] column : ints) System.arraycopy(column, row + 1, column, row, moved);
+		for(long[] column : longs) System.arraycopy(column, row + 1, column, row, moved);
+		for(double[] column : doubles) System.arraycopy(column, row + 1, column, row, moved);
+		len--;
+	}
+
+	//removes every row. primitives hold no references so we only need to reset the length
+	public void clear()
+	{
+		len = 0;
+	}
+
+	public int getInt(int row, int col)
+	{
+		checkRow(row);
+		return ints[slot(col, Type.INT)][row];
+	}
+
+	public void setInt(int row, int col, int value)
+	{
+		checkRow(row);
+		ints[slot(col, Type.INT)][row] = value;
+	}
+
+	public long getLong(int row, int col)
+	{
+		checkRow(row);
+		return longs[slot(col, Type.LONG)][row];
+	}
+
+	public void setLong(int row, int col, long value)
+	{
+		checkRow(row);
+		longs[slot(col, Type.LONG)][row] = value;
+	}
+
+	public double getDouble(int row, int col)
+	{
+		checkRow(row);
+		return doubles[slot(col, Type.DOUBLE)][row];
+	}
+
+	public void setDouble(int row, int col, double value)
+	{
+		checkRow(row);
+		doubles[slot(col, Type.DOUBLE)][row] = value;
+	}
+
+	//sum of an INT column. one tight loop over one int[]
+	public long sumInt(int col)
+	{
+		int[] column = ints[slot(col, Type.INT)];
+		long sum = 0;
+		for(int i = 0; i < len; i++)
+		{
+			sum += column[i];
+		}
+		return sum;
+	}
+
+	//sum of a LONG column
+	public long sumLong(int col)
+	{
+		long[] column = longs[slot(col, Type.LONG)];
+		long sum = 0;
+		for(int i = 0; i < len; i++)
+		{
+			sum += column[i];
+		}
+		return sum;
+	}
+
+	//sum of a DOUBLE column
+	public double sumDouble(int col)
+	{
+		double[] column = doubles[slot(col, Type.DOUBLE)];
+		double sum = 0;
+		for(int i = 0; i < len; i++)
+		{
+			sum += column[i];
+		}
+		return sum;
+	}
+
+	//first row whose INT field equals value, or -1
+	public int indexOfInt(int col, int value)
+	{
+		int[] column = ints[slot(col, Type.INT)];
+		for(int i = 0; i < len; i++)
+		{
+			if(column[i] == value)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	//first row whose LONG field equals value, or -1
+	public int indexOfLong(int col, long value)
+	{
+		long[] column = longs[slot(col, Type.LONG)];
+		for(int i = 0; i < len; i++)
+		{
+			if(column[i] == value)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	//returns a new cursor. move it with at(row) and read or write through it as often as you like, it never
+	//allocates again
+	public Row cursor()
+	{
+		return new Row();
+	}
+
+	//calls the action once per row with the same cursor moved to each row in turn. don't keep the cursor around,
+	//it keeps moving after the action returns
+	public void forEachRow(Consumer<Row> action)
+	{
+		Row row = new Row();
+		for(int i = 0; i < len; i++)
+		{
+			action.accept(row.at(i));
+		}
+	}
+
+	//a flyweight view of one row. it only holds the row index, the data stays in the columns. every read and write
+	//checks the row against the current size, so a cursor left on a row that clear() or removeAt() took away throws
+	//instead of reading stale data. a cursor on a row that is still there just keeps its index, after removeAt of
+	//an earlier row that is the row that used to come after it
+	public class Row
+	{
+		private int row = 0;
+
+		private Row() { }
+
+		//moves this cursor to another row and returns it so calls can be chained
+		public Row at(int row)
+		{
+			checkRow(row);
+			this.row = row;
+			return this;
+		}
+
+		//index of the row this cursor points at
+		public int index()
+		{
+			return row;
+		}
+
+		public int getInt(int col)
+		{
+			checkRow(row);
+			return ints[slot(col, Type.INT)][row];
+		}
+
+		public void setInt(int col, int value)
+		{
+			checkRow(row);
+			ints[slot(col, Type.INT)][row] = value;
+		}
+
+		public long getLong(int col)
+		{
+			checkRow(row);
+			return longs[slot(col, Type.LONG)][row];
+		}
+
+		public void setLong(int col, long value)
+		{
+			checkRow(row);
+			longs[slot(col, Type.LONG)][row] = value;
+		}
+
+		public double getDouble(int col)
+		{
+			checkRow(row);
+			return doubles[slot(col, Type.DOUBLE)][row];
+		}
+
+		public void setDouble(int col, double value)
+		{
+			checkRow(row);
+			doubles[slot(col, Type.DOUBLE)][row] = value;
+		}
+	}
+
+	//doubles the capacity of every column, same growth rule as Array
+	private void grow()
+	{
+		capacity = capacity == 0 ? 1 : capacity * 2;
+		for(int i = 0; i < ints.length; i++) ints[i] = Arrays.copyOf(ints[i], capacity);
+		for(int i = 0; i < longs.length; i++) longs[i] = Arrays.copyOf(longs[i], capacity);
+		for(int i = 0; i < doubles.length; i++) doubles[i] = Arrays.copyOf(doubles[i], capacity);
+	}
+
+	//maps a column to its slot, making sure the column has the type the caller asked for
+	private int slot(int col, Type expected)
+	{
+		if(col < 0 || col >= types.length) throw new IndexOutOfBoundsException("Column: " + col + ", Columns: " + types.length);
+		if(types[col] != expected) throw new IllegalArgumentException("Column " + col + " is " + types[col] + ", not " + expected);
+		return slot[col];
+	}
+
+	private void checkRow(int row)
+	{
+		if(row < 0 || row >= len) throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + len);
+	}
+
+	//string representation, every row printed as a tuple of its fields
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for(int r = 0; r < len; r++)
+		{
+			sb.append(r == 0 ? "(" : ", (");
+			for(int c = 0; c < types.length; c++)
+			{
+				if(c > 0) sb.append(", ");
+				switch(types[c])
+				{
+				case INT:
+					sb.append(ints[slot[c]][r]);
+					break;
+				case LONG:
+					sb.append(longs[slot[c]][r]);
+					break;
+				default:
+					sb.append(doubles[slot[c]][r]);
+					break;
+				}
+			}
+			sb.append(")");
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * What is a compressed sorted integer array?
+ *
+ *     Sorted lists of ids (like the posting lists of a search index) are usually made of numbers that are close to
+ *     each other. Storing them as Array<Integer> costs a pointer plus an Integer object per id, roughly 16-20 bytes,
+ *     and even a plain int[] spends 4 bytes on every id.
+ *
+ *     CompressedIntArray is a read only array that stores the differences (deltas) between neighbouring ids instead
+ *     of the ids themselves, and writes each delta as a varint:
+ *
+ *         ids:     1000  1003  1004  1010  1300
+ *         deltas:  (first)  3     1     6   290
+ *
+ *     A varint stores 7 bits per byte and uses the top bit of each byte to say "more bytes follow". Small deltas
+ *     like 3 take a single byte, 290 takes two. For dense lists that is 1 byte per id instead of 4.
+ *
+ * Blocks and the skip index
+ *
+ *     Varints can only be decoded from the front, so to avoid decoding the whole array for every lookup we cut it
+ *     into blocks of 128 ids. For every block we remember its first id and where its deltas start:
+ *
+ *         blockFirst:  [ 1000 | 5230 | 9811 | ... ]
+ *         blockOffset: [ 0    | 131  | 259  | ... ]
+ *
+ *     get(i) jumps straight to block i / 128 and decodes at most 127 deltas. contains(x) binary searches blockFirst
+ *     to find the one block x could be in, then decodes only that block. Iterating decodes every byte exactly once.
+ *
+ * Complexity Analysis
+ *
+ *     Get: O(block size)
+ *     Contains/IndexOf: O(log(n / block size) + block size)
+ *     Iterate: O(n), sequential decode
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class CompressedIntArray
+{
+	//ids per block, must be a power of two
+	private static final int BLOCK_SHIFT = 7;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	private final int len; //number of ids
+	private final int [] blockFirst; //first id of every block, stored uncompressed
+	private final int [] blockOffset; //where in data the deltas of every block start
+	private final byte [] data; //varint encoded deltas, BLOCK_SIZE - 1 per block (fewer in the last one)
+
+	//compresses a sorted (non decreasing) int[]. the input is not modified
+	public static CompressedIntArray of(int[] sorted)
+	{
+		if(sorted == null) throw new IllegalArgumentException("Input cannot be null");
+		return new CompressedIntArray(sorted, sorted.length);
+	}
+
+	//compresses the contents of a sorted IntArray
+	public static CompressedIntArray from(IntArray sorted)
+	{
+		if(sorted == null) throw new IllegalArgumentException("Input cannot be null");
+		return of(sorted.toArray());
+	}
+
+	//compresses the contents of a sorted Array of Integers. null elements are not allowed
+	public static CompressedIntArray from(Array<Integer> sorted)
+	{
+		if(sorted == null) throw new IllegalArgumentException("Input cannot be null");
+		int[] values = new int[sorted.size()];
+		for(int i = 0; i < values.length; i++)
+		{
+			Integer value = sorted.get(i);
+			if(value == null) throw new IllegalArgumentException("Null element at index " + i);
+			values[i] = value;
+		}
+		return of(values);
+	}
+
+	private CompressedIntArray(int[] values, int len)
+	{
+		this.len = len;
+		int blocks = (len + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+		blockFirst = new int[blocks];
+		blockOffset = new int[blocks];
+
+		byte[] out = new byte[Math.max(16, len)]; //one byte per id is the common case, we grow if we need more
+		int pos = 0;
+		for(int i = 0; i < len; i++)
+		{
+			if(i > 0 && values[i] < values[i - 1])
+			{
+				throw new IllegalArgumentException("Input is not sorted at index " + i);
+			}
+			if((i & BLOCK_MASK) == 0)
+			{
+				blockFirst[i >>> BLOCK_SHIFT] = values[i];
+				blockOffset[i >>> BLOCK_SHIFT] = pos;
+				continue;
+			}
+
+			//the delta is at most 2^32 - 1 (MIN_VALUE to MAX_VALUE) so we treat it as unsigned. adding it back with
+			//int overflow restores the exact value
+			int delta = values[i] - values[i - 1];
+			if(pos + 5 > out.length)
+			{
+				out = Arrays.copyOf(out, out.length * 2);
+			}
+			while((delta & ~0x7F) != 0)
+			{
+				out[pos++] = (byte) ((delta & 0x7F) | 0x80);
+				delta >>>= 7;
+			}
+			out[pos++] = (byte) delta;
+		}
+		data = Arrays.copyOf(out, pos);
+	}
+
+	//number of ids
+	public int size()
+	{
+		return len;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//approximate number of bytes the compressed data takes up, not counting object headers
+	public long sizeInBytes()
+	{
+		return data.length + 4L * (blockFirst.length + blockOffset.length);
+	}
+
+	//get the id at index. jumps to its block and decodes forward from the start of the block
+	public int get(int index)
+	{
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+
+		int block = index >>> BLOCK_SHIFT;
+		int value = blockFirst[block];
+		int pos = blockOffset[block];
+		for(int i = index & BLOCK_MASK; i > 0; i--)
+		{
+			int b = data[pos++];
+			int delta = b & 0x7F;
+			for(int shift = 7; b < 0; shift += 7)
+			{
+				b = data[pos++];
+				delta |= (b & 0x7F) << shift;
+			}
+			value += delta;
+		}
+		return value;
+	}
+
+	//index of the first occurrence of value, or -1
+	public int indexOf(int value)
+	{
+		if(len == 0)
+		{
+			return -1;
+		}
+
+		//find the last block whose first id is < value. value's first occurrence is either in that block or is
+		//the first id of the block right after it
+		int lo = 0, hi = blockFirst.length - 1, block = 0;
+		while(lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(blockFirst[mid] < value)
+			{
+				block = mid;
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid - 1;
+			}
+		}
+
+		int index = block << BLOCK_SHIFT;
+		int end = Math.min(len, index + BLOCK_SIZE);
+		int current = blockFirst[block];
+		int pos = blockOffset[block];
+		while(true)
+		{
+			if(current >= value)
+			{
+				return current == value ? index : -1;
+			}
+			if(++index == end)
+			{
+				break;
+			}
+			int b = data[pos++];
+			int delta = b & 0x7F;
+			for(int shift = 7; b < 0; shift += 7)
+			{
+				b = data[pos++];
+				delta |= (b & 0x7F) << shift;
+			}
+			current += delta;
+		}
+		return index < len && blockFirst[block + 1] == value ? index : -1;
+	}
+
+	//finds if the array contains value
+	public boolean contains(int value)
+	{
+		return indexOf(value) != -1;
+	}
+
+	//decompresses every id into a new int[]
+	public int[] toArray()
+	{
+		int[] out = new int[len];
+		PrimitiveIterator.OfInt it = iterator();
+		for(int i = 0; i < len; i++)
+		{
+			out[i] = it.nextInt();
+		}
+		return out;
+	}
+
+	//sequential iterator, decodes each varint exactly once and never boxes
+	public PrimitiveIterator.OfInt iterator()
+	{
+		return new PrimitiveIterator.OfInt ()
+		{
+			int index = 0;
+			int pos = 0;
+			int value = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				if((index & BLOCK_MASK) == 0)
+				{
+					value = blockFirst[index >>> BLOCK_SHIFT];
+					pos = blockOffset[index >>> BLOCK_SHIFT];
+				}
+				else
+				{
+					int b = data[pos++];
+					int delta = b & 0x7F;
+					for(int shift = 7; b < 0; shift += 7)
+					{
+						b = data[pos++];
+						delta |= (b & 0x7F) << shift;
+					}
+					value += delta;
+				}
+				index++;
+				return value;
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		PrimitiveIterator.OfInt it = iterator();
+		while(it.hasNext())
+		{
+			sb.append(it.nextInt());
+			if(it.hasNext())
+			{
+				sb.append(", ");
+			}
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * What is a copy on write array?
+ *
+ *     A copy on write array is a thread safe dynamic array built for data that is read far more often than it is
+ *     changed, like configuration shared by many request threads.
+ *
+ *     Readers never take a lock. They read one volatile reference to the current backing array and work on that.
+ *     Writers take a lock, copy the backing array, change the copy, and then publish the copy by writing it to the
+ *     volatile reference. Since a published array is never modified again, a reader always sees a complete,
+ *     consistent snapshot: an iterator keeps walking the array it started with, even while writers publish new ones.
+ *
+ *         reader A ----> [ a b c ]          (still iterating the old snapshot)
+ *         array  ------> [ a b c d ]        (writer published a copy with d appended)
+ *
+ *     Reads scale with the number of cores because they share nothing but one volatile read. Every write costs O(n)
+ *     to copy the array, which is why this only pays off when writes are rare.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Size/Iterate: O(1) per element, no locking
+ *     Add/Set/RemoveAt/Clear: O(n), serialized by a lock
+ *     IndexOf/Contains: O(n), no locking
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unchecked")
+public class ConcurrentArray <T> implements Iterable <T>
+{
+	//the current snapshot. always exactly as long as the array is, and never modified once published
+	private volatile Object [] arr = new Object[0];
+
+	//serializes writers. readers never touch it
+	private final Object lock = new Object();
+
+	//get size of array
+	public int size()
+	{
+		return arr.length;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//get a value from the array by index
+	public T get(int index)
+	{
+		Object[] a = arr; //read the volatile once so the bounds check and the read use the same snapshot
+		if(index < 0 || index >= a.length) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + a.length);
+		return (T) a[index];
+	}
+
+	//set the value of an index in the array and return the old value
+	public T set(int index, T elem)
+	{
+		synchronized(lock)
+		{
+			Object[] a = arr;
+			if(index < 0 || index >= a.length) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + a.length);
+			T old = (T) a[index];
+			Object[] copy = Arrays.copyOf(a, a.length);
+			copy[index] = elem;
+			arr = copy;
+			return old;
+		}
+	}
+
+	//clear all data in the array by publishing an empty snapshot
+	public void clear()
+	{
+		synchronized(lock)
+		{
+			arr = new Object[0];
+		}
+	}
+
+	//adds a new element to the end of the array
+	public void add(T elem)
+	{
+		synchronized(lock)
+		{
+			Object[] a = arr;
+			Object[] copy = Arrays.copyOf(a, a.length + 1);
+			copy[a.length] = elem;
+			arr = copy;
+		}
+	}
+
+	//removes the element at the specified index
+	public T removeAt(int rm_index)
+	{
+		synchronized(lock)
+		{
+			Object[] a = arr;
+			if(rm_index < 0 || rm_index >= a.length)
+			{
+				throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + a.length);
+			}
+			T data = (T) a[rm_index];
+			Object[] copy = new Object[a.length - 1];
+			System.arraycopy(a, 0, copy, 0, rm_index);
+			System.arraycopy(a, rm_index + 1, copy, rm_index, a.length - rm_index - 1);
+			arr = copy;
+			return data;
+		}
+	}
+
+	//removes the first occurrence of obj, returns true if it was found
+	public boolean remove(Object obj)
+	{
+		synchronized(lock)
+		{
+			int index = indexOf(arr, obj);
+			if(index == -1)
+			{
+				return false;
+			}
+			removeAt(index); //the lock is reentrant so this is safe
+			return true;
+		}
+	}
+
+	//loop through the current snapshot, if we find element return its index, if not return -1
+	public int indexOf(Object obj)
+	{
+		return indexOf(arr, obj);
+	}
+
+	private static int indexOf(Object[] a, Object obj)
+	{
+		for(int i = 0; i < a.length; i++)
+		{
+			if(obj == null ? a[i] == null : obj.equals(a[i]))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	//finds if array contains value
+	public boolean contains(Object obj)
+	{
+		return indexOf(obj) != -1;
+	}
+
+	//the iterator walks the snapshot that was current when it was created. it never throws a concurrent
+	//modification exception and never sees a half finished write
+	@Override
+	public Iterator<T> iterator()
+	{
+		final Object[] a = arr;
+		return new Iterator <T> ()
+		{
+			int index = 0;
+
+			public boolean hasNext()
+			{
+				return index < a.length;
+			}
+
+			public T next()
+			{
+				if(index >= a.length) throw new NoSuchElementException();
+				return (T) a[index++];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the current snapshot
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(arr);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * DoubleArray is the primitive double sibling of IntArray. It mirrors the Array<T> API but keeps a double[] as its backing array,
+ * so double values are never boxed into Double objects on add(), get() or iteration.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1) amortized (we double the capacity when we run out of room)
+ *     RemoveAt: O(n) since we shift every element after the removed index one slot to the left
+ *     IndexOf/Contains: O(n)
+ */
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+
+public class DoubleArray
+{
+    private double [] arr; //our internal static array of primitive doubles
+    private int len = 0; //length user thinks array is
+    private int capacity = 0; //actual array size
+
+    //constructor inits array to be size 16
+    public DoubleArray()
+    {
+    	this(16);
+    }
+
+    //constructor inits array to be size of capacity(whatever we give it)
+    public DoubleArray(int capacity)
+    {
+    	if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    	this.capacity = capacity;
+    	arr = new double[capacity];
+    }
+
+    //get size of array
+    public int size()
+    {
+    	return len;
+    }
+
+    //check if array is empty
+    public boolean isEmpty()
+    {
+    	return size() == 0;
+    }
+
+    //get a value from the array by index
+    public double get(int index)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	return arr[index];
+    }
+
+    //set the value of an index in the array
+    public void set(int index, double elem)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	arr[index] = elem;
+    }
+
+    //clear all data in the array. primitives hold no references so we only need to reset the length
+    public void clear()
+    {
+    	len = 0;
+    }
+
+    //adds a new element to the array
+    public void add(double elem)
+    {
+    	//if the backing array is full we double it, same as Array
+    	if(len == capacity)
+    	{
+    		capacity = capacity == 0 ? 1 : capacity * 2;
+    		double[] new_arr = new double[capacity];
+    		System.arraycopy(arr, 0, new_arr, 0, len); //copy all elements from old array into new array
+    		arr = new_arr;
+    	}
+    	arr[len++] = elem;
+    }
+
+    //removes the element at the specified index by shifting everything after it one slot to the left
+    public double removeAt(int rm_index)
+    {
+    	if(rm_index < 0 || rm_index >= len) throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
+
+    	double data = arr[rm_index];
+    	System.arraycopy(arr, rm_index + 1, arr, rm_index, len - rm_index - 1);
+    	len--;
+    	return data;
+    }
+
+    //loop through array, if we find element return its index, if not return -1
+    //we compare with Double.compare so NaN can be found and 0.0 and -0.0 are told apart, same as Double.equals
+    public int indexOf(double elem)
+    {
+    	for(int i = 0; i < len; i++)
+    	{
+    		if(Double.compare(arr[i], elem) == 0)
+    		{
+    			return i;
+    		}
+    	}
+    	return -1;
+    }
+
+    //finds if array contains value
+    public boolean contains(double elem)
+    {
+    	return indexOf(elem) != -1;
+    }
+
+    //calls the action on every element in order. no boxing and no iterator allocation
+    public void forEach(DoubleConsumer action)
+    {
+    	for(int i = 0; i < len; i++)
+    	{
+    		action.accept(arr[i]);
+    	}
+    }
+
+    //copies the elements into a new double[] of exactly size() elements
+    public double[] toArray()
+    {
+    	double[] out = new double[len];
+    	System.arraycopy(arr, 0, out, 0, len);
+    	return out;
+    }
+
+    //primitive iterator. nextDouble() returns the raw double so a hot loop never boxes
+	public PrimitiveIterator.OfDouble iterator()
+	{
+		return new PrimitiveIterator.OfDouble ()
+		{
+			int index = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			@Override
+			public double nextDouble()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return arr[index++];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		if(len == 0)
+		{
+			return "[]";
+		}
+		else
+		{
+			StringBuilder sb = new StringBuilder(len).append("[");
+			for(int i = 0; i < len-1; i++)
+			{
+				sb.append(arr[i]).append(", ");
+			}
+			return sb.append(arr[len-1]).append("]").toString();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+import java.nio.ByteBuffer;
+
+//a codec that turns an element into exactly width() bytes and back again.
+//OffHeapArray uses this to store records outside of the java heap. read and write use absolute offsets so they never
+//touch the position or limit of the buffer they are given
+public interface FixedWidthCodec <T>
+{
+	//number of bytes every encoded element takes up
+	int width();
+
+	//writes elem into buf starting at offset. must write exactly width() bytes
+	void write(ByteBuffer buf, int offset, T elem);
+
+	//reads the element that starts at offset in buf
+	T read(ByteBuffer buf, int offset);
+
+	//codec for Integer values, 4 bytes each
+	FixedWidthCodec<Integer> INT = new FixedWidthCodec<Integer>()
+	{
+		public int width() { return Integer.BYTES; }
+		public void write(ByteBuffer buf, int offset, Integer elem) { buf.putInt(offset, elem); }
+		public Integer read(ByteBuffer buf, int offset) { return buf.getInt(offset); }
+	};
+
+	//codec for Long values, 8 bytes each
+	FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>()
+	{
+		public int width() { return Long.BYTES; }
+		public void write(ByteBuffer buf, int offset, Long elem) { buf.putLong(offset, elem); }
+		public Long read(ByteBuffer buf, int offset) { return buf.getLong(offset); }
+	};
+
+	//codec for Double values, 8 bytes each
+	FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<Double>()
+	{
+		public int width() { return Double.BYTES; }
+		public void write(ByteBuffer buf, int offset, Double elem) { buf.putDouble(offset, elem); }
+		public Double read(ByteBuffer buf, int offset) { return buf.getDouble(offset); }
+	};
+}
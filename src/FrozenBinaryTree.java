@@ -0,0 +1,112 @@
+/*
+ * What is the Eytzinger layout?
+ *
+ *     A BinaryTree lookup follows a link from node to node, and every node is a separate object, so every level is a
+ *     pointer we can only load after the previous one arrived. A plain binary search over a sorted array avoids the
+ *     objects, but its first few probes land far apart (n/2, n/4, 3n/4, ...) and each one is another cache miss.
+ *
+ *     The Eytzinger layout (named after a 16th century genealogist, it is also how a binary heap is stored) puts a
+ *     perfectly balanced binary search tree into an array in level order, starting at index 1. The children of
+ *     index k are at 2k and 2k + 1, so there are no links to store at all:
+ *
+ *         sorted:     1  2  3  4  5  6  7
+ *
+ *                           4
+ *                         /   \
+ *         tree:          2     6
+ *                       / \   / \
+ *                      1   3 5   7
+ *
+ *         index:      [ _ | 4 | 2 | 6 | 1 | 3 | 5 | 7 ]
+ *                       0   1   2   3   4   5   6   7
+ *
+ *     The top levels of the tree, the ones every search goes through, are packed together at the front of the array
+ *     and stay in the cache, and the nodes a search visits next are always at 2k or 2k + 1, close to each other.
+ *
+ * Branch-free search
+ *
+ *     At every level we go to 2k if the key is at least what we are looking for and to 2k + 1 if it is smaller.
+ *     Instead of branching on that we add the sign bit of the comparison, which is 1 exactly when the key is smaller:
+ *
+ *         k = 2 * k + (keys[k].compareTo(elem) >>> 31)
+ *
+ *     so the loop has no hard to predict branch, it only runs for as many levels as the tree has. When k falls off
+ *     the bottom of the tree, the bits of k spell out the path we took (1 = went right). The last time we went left
+ *     was at the first key that is >= elem, and we get back there by dropping the trailing 1 bits and the 0 before
+ *     them:
+ *
+ *         k >>>= Integer.numberOfTrailingZeros(~k) + 1
+ *
+ *     which gives 0 if we never went left, meaning every key is smaller than elem.
+ *
+ * A FrozenBinaryTree is created by BinaryTree.freeze() and never changes after that.
+ *
+ * Complexity Analysis
+ *
+ *     Contains/Ceiling: O(log(n)), exactly floor(log2(n)) + 1 comparisons
+ *     Memory: one array slot per element, no node objects
+ */
+
+@SuppressWarnings("unchecked")
+public final class FrozenBinaryTree <T extends Comparable<T>>
+{
+	private final Object [] keys; //the elements in Eytzinger order, keys[0] is unused
+	private final int n; //number of elements
+
+	//sorted must be in increasing order without duplicates. BinaryTree.freeze() is the only caller
+	FrozenBinaryTree(Object[] sorted)
+	{
+		n = sorted.length;
+		keys = new Object[n + 1];
+		fill(sorted, 0, 1);
+	}
+
+	//fills the subtree rooted at index k with an in order walk, so the elements come out of sorted in order.
+	//returns the position in sorted after the last element used. recursion only goes as deep as the tree is tall
+	private int fill(Object[] sorted, int i, int k)
+	{
+		if(k <= n)
+		{
+			i = fill(sorted, i, 2 * k);
+			keys[k] = sorted[i++];
+			i = fill(sorted, i, 2 * k + 1);
+		}
+		return i;
+	}
+
+	//get number of elements
+	public int size()
+	{
+		return n;
+	}
+
+	//check if empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//returns true if the element exists in the tree
+	public boolean contains(T elem)
+	{
+		int k = lowerBound(elem);
+		return k != 0 && elem.compareTo((T) keys[k]) == 0;
+	}
+
+	//returns the smallest element that is greater than or equal to elem, or null if there is none
+	public T ceiling(T elem)
+	{
+		return (T) keys[lowerBound(elem)];
+	}
+
+	//index of the first key that is >= elem, or 0 if there is none (keys[0] is always null)
+	private int lowerBound(T elem)
+	{
+		int k = 1;
+		while(k <= n)
+		{
+			k = 2 * k + (((T) keys[k]).compareTo(elem) >>> 31);
+		}
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+}
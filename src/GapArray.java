@@ -0,0 +1,257 @@
+/*
+ * What is a gap buffer?
+ *
+ *     A gap buffer is a dynamic array with a hole (the gap) in the middle of its backing array. It is the classic
+ *     data structure behind text editors. The gap sits wherever the user is editing, usually called the cursor:
+ *
+ *         [ a b c _ _ _ _ d e ]
+ *                 ^gapStart ^gapEnd
+ *
+ *     Inserting at the cursor just fills the first slot of the gap, and deleting at the cursor just widens the gap.
+ *     Neither moves a single element, so both are O(1):
+ *
+ *         insertAt(3, x)  ->  [ a b c x _ _ _ d e ]
+ *         removeAt(3)     ->  [ a b c _ _ _ _ _ e ]   (removes d, the element right after the gap)
+ *
+ *     Editing somewhere else first moves the gap there. Moving the gap by k positions copies k elements from one
+ *     side of the gap to the other, so edits near the last edit stay cheap:
+ *
+ *         move gap to 1   ->  [ a _ _ _ _ b c d e ]
+ *
+ *     When the gap fills up we double the backing array and the new room becomes the gap.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1), the index only has to skip over the gap
+ *     InsertAt/RemoveAt: O(1) amortized at the cursor, O(k) to move the cursor k positions first
+ *     IndexOf/Contains: O(n)
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unchecked")
+public class GapArray <T> implements Iterable <T>
+{
+	private Object [] buf; //backing array, elements on both sides of the gap
+	private int gapStart = 0; //first slot of the gap, also the cursor position
+	private int gapEnd = 0; //first slot after the gap
+
+	//constructor inits array to be size 16
+	public GapArray()
+	{
+		this(16);
+	}
+
+	//constructor inits array to be size of capacity(whatever we give it)
+	public GapArray(int capacity)
+	{
+		if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		buf = new Object[capacity];
+		gapEnd = capacity;
+	}
+
+	//get size of array, everything that isn't gap
+	public int size()
+	{
+		return buf.length - (gapEnd - gapStart);
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//index the next insertAt or removeAt is cheapest at
+	public int cursor()
+	{
+		return gapStart;
+	}
+
+	//get a value from the array by index
+	public T get(int index)
+	{
+		checkIndex(index);
+		return (T) buf[physical(index)];
+	}
+
+	//set the value of an index in the array
+	public void set(int index, T elem)
+	{
+		checkIndex(index);
+		buf[physical(index)] = elem;
+	}
+
+	//clear all data in the array. the whole backing array becomes the gap
+	public void clear()
+	{
+		for(int i = 0; i < buf.length; i++)
+		{
+			buf[i] = null;
+		}
+		gapStart = 0;
+		gapEnd = buf.length;
+	}
+
+	//appends elem to the end of the array
+	public void add(T elem)
+	{
+		insertAt(size(), elem);
+	}
+
+	//inserts elem at index. the gap moves to index first, then elem fills the first slot of the gap
+	public void insertAt(int index, T elem)
+	{
+		if(index < 0 || index > size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+		moveGap(index);
+		if(gapStart == gapEnd)
+		{
+			grow();
+		}
+		buf[gapStart++] = elem;
+	}
+
+	//removes the element at index. the gap moves to index first, then swallows the element right after it
+	public T removeAt(int rm_index)
+	{
+		checkIndex(rm_index);
+
+		moveGap(rm_index);
+		T data = (T) buf[gapEnd];
+		buf[gapEnd++] = null;
+		return data;
+	}
+
+	//look through array, if we find the element we remove it and return true, if not, false
+	public boolean remove(Object obj)
+	{
+		int index = indexOf(obj);
+		if(index == -1)
+		{
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	//loop through both sides of the gap, if we find element return its index, if not return -1
+	public int indexOf(Object obj)
+	{
+		for(int i = 0; i < gapStart; i++)
+		{
+			if(obj == null ? buf[i] == null : obj.equals(buf[i]))
+			{
+				return i;
+			}
+		}
+		for(int i = gapEnd; i < buf.length; i++)
+		{
+			if(obj == null ? buf[i] == null : obj.equals(buf[i]))
+			{
+				return i - (gapEnd - gapStart);
+			}
+		}
+		return -1;
+	}
+
+	//finds if array contains value
+	public boolean contains(Object obj)
+	{
+		return indexOf(obj) != -1;
+	}
+
+	//maps a logical index to its slot in buf by skipping over the gap
+	private int physical(int index)
+	{
+		return index < gapStart ? index : index + (gapEnd - gapStart);
+	}
+
+	//moves the gap so it starts at index. only the elements between the old and the new position are copied
+	private void moveGap(int index)
+	{
+		if(index < gapStart)
+		{
+			//elements [index, gapStart) move to just before gapEnd
+			int count = gapStart - index;
+			System.arraycopy(buf, index, buf, gapEnd - count, count);
+			clearSlots(index, Math.min(gapStart, gapEnd - count));
+			gapStart = index;
+			gapEnd -= count;
+		}
+		else if(index > gapStart)
+		{
+			//elements [gapEnd, gapEnd + count) move to gapStart
+			int count = index - gapStart;
+			System.arraycopy(buf, gapEnd, buf, gapStart, count);
+			clearSlots(Math.max(gapEnd, gapStart + count), gapEnd + count);
+			gapStart = index;
+			gapEnd += count;
+		}
+	}
+
+	//nulls out slots that just became part of the gap so we don't hold on to stale references
+	private void clearSlots(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			buf[i] = null;
+		}
+	}
+
+	//doubles the backing array. the text after the gap moves to the end of the new array, so all the new room
+	//ends up inside the gap
+	private void grow()
+	{
+		int newCapacity = buf.length == 0 ? 1 : buf.length * 2;
+		Object[] new_buf = new Object[newCapacity];
+		int tail = buf.length - gapEnd;
+		System.arraycopy(buf, 0, new_buf, 0, gapStart);
+		System.arraycopy(buf, gapEnd, new_buf, newCapacity - tail, tail);
+		buf = new_buf;
+		gapEnd = newCapacity - tail;
+	}
+
+	private void checkIndex(int index)
+	{
+		if(index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+	}
+
+	//iterates the elements in order, jumping over the gap
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new Iterator <T> ()
+		{
+			int index = 0;
+
+			public boolean hasNext()
+			{
+				return index < size();
+			}
+
+			public T next()
+			{
+				if(index >= size()) throw new NoSuchElementException();
+				return (T) buf[physical(index++)];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for(int i = 0; i < size(); i++)
+		{
+			if(i > 0)
+			{
+				sb.append(", ");
+			}
+			sb.append(buf[physical(i)]);
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Why a primitive array?
+ *
+ *     Array<T> stores every element inside an Object[]. When T is Integer that means every add() boxes the int into
+ *     an Integer object and every get() unboxes it again. Each element is then a pointer to a separate object on the
+ *     heap, so reading the array chases a pointer per element and uses roughly 4x the memory of a plain int[].
+ *
+ *     IntArray is the same dynamic array as Array<T>, but the backing array is an int[]. Nothing is ever boxed, so
+ *     add(), get(), set(), the primitive iterator and forEach(IntConsumer) never allocate.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1) amortized (we double the capacity when we run out of room)
+ *     RemoveAt: O(n) since we shift every element after the removed index one slot to the left
+ *     IndexOf/Contains: O(n)
+ *     Sum/Count: O(n), a plain counted loop the JIT can vectorize
+ *     Min/Max: O(n), four elements per loop iteration
+ */
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+public class IntArray
+{
+    private int [] arr; //our internal static array of primitive ints
+    private int len = 0; //length user thinks array is
+    private int capacity = 0; //actual array size
+
+    //constructor inits array to be size 16
+    public IntArray()
+    {
+    	this(16);
+    }
+
+    //constructor inits array to be size of capacity(whatever we give it)
+    public IntArray(int capacity)
+    {
+    	if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    	this.capacity = capacity;
+    	arr = new int[capacity];
+    }
+
+    //get size of array
+    public int size()
+    {
+    	return len;
+    }
+
+    //check if array is empty
+    public boolean isEmpty()
+    {
+    	return size() == 0;
+    }
+
+    //get a value from the array by index
+    public int get(int index)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	return arr[index];
+    }
+
+    //set the value of an index in the array
+    public void set(int index, int elem)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	arr[index] = elem;
+    }
+
+    //clear all data in the array. primitives hold no references so we only need to reset the length
+    public void clear()
+    {
+    	len = 0;
+    }
+
+    //adds a new element to the array
+    public void add(int elem)
+    {
+    	//if the backing array is full we double it, same as Array
+    	if(len == capacity)
+    	{
+    		capacity = capacity == 0 ? 1 : capacity * 2;
+    		int[] new_arr = new int[capacity];
+    		System.arraycopy(arr, 0, new_arr, 0, len); //copy all elements from old array into new array
+    		arr = new_arr;
+    	}
+    	arr[len++] = elem;
+    }
+
+    //removes the element at the specified index by shifting everything after it one slot to the left
+    public int removeAt(int rm_index)
+    {
+    	if(rm_index < 0 || rm_index >= len) throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
+
+    	int data = arr[rm_index];
+    	System.arraycopy(arr, rm_index + 1, arr, rm_index, len - rm_index - 1);
+    	len--;
+    	return data;
+    }
+
+    //loop through array, if we find element return its index, if not return -1
+    public int indexOf(int elem)
+    {
+    	int[] a = arr;
+    	for(int i = 0; i < len; i++)
+    	{
+    		if(a[i] == elem)
+    		{
+    			return i;
+    		}
+    	}
+    	return -1;
+    }
+
+    //finds if array contains value
+    public boolean contains(int elem)
+    {
+    	return indexOf(elem) != -1;
+    }
+
+    //sum of every element. a plain counted loop over the backing array, which the JIT already turns into SIMD
+    //instructions on hardware that has them. splitting it by hand into lanes measured slower (see
+    //PrimitiveScanBenchmark)
+    public long sum()
+    {
+    	int[] a = arr;
+    	long sum = 0;
+    	for(int i = 0; i < len; i++)
+    	{
+    		sum += a[i];
+    	}
+    	return sum;
+    }
+
+    //smallest element. throws if the array is empty. we keep four independent running minimums so each Math.min
+    //doesn't have to wait on the one before it. unlike sum this does measure faster than the plain loop
+    public int min()
+    {
+    	if(len == 0) throw new RuntimeException("Empty array");
+    	int[] a = arr;
+    	int m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+    	int i = 0;
+    	for(; i + 3 < len; i += 4)
+    	{
+    		m0 = Math.min(m0, a[i]);
+    		m1 = Math.min(m1, a[i+1]);
+    		m2 = Math.min(m2, a[i+2]);
+    		m3 = Math.min(m3, a[i+3]);
+    	}
+    	for(; i < len; i++)
+    	{
+    		m0 = Math.min(m0, a[i]);
+    	}
+    	return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    //largest element, same four lane layout as min. throws if the array is empty
+    public int max()
+    {
+    	if(len == 0) throw new RuntimeException("Empty array");
+    	int[] a = arr;
+    	int m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+    	int i = 0;
+    	for(; i + 3 < len; i += 4)
+    	{
+    		m0 = Math.max(m0, a[i]);
+    		m1 = Math.max(m1, a[i+1]);
+    		m2 = Math.max(m2, a[i+2]);
+    		m3 = Math.max(m3, a[i+3]);
+    	}
+    	for(; i < len; i++)
+    	{
+    		m0 = Math.max(m0, a[i]);
+    	}
+    	return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    //number of elements equal to elem. the comparison result is added as 0 or 1 instead of branching on it, so the
+    //loop runs at the same speed no matter how many elements match
+    public int count(int elem)
+    {
+    	int[] a = arr;
+    	int count = 0;
+    	for(int i = 0; i < len; i++)
+    	{
+    		count += a[i] == elem ? 1 : 0;
+    	}
+    	return count;
+    }
+
+    //calls the action on every element in order. no boxing and no iterator allocation
+    public void forEach(IntConsumer action)
+    {
+    	for(int i = 0; i < len; i++)
+    	{
+    		action.accept(arr[i]);
+    	}
+    }
+
+    //copies the elements into a new int[] of exactly size() elements
+    public int[] toArray()
+    {
+    	int[] out = new int[len];
+    	System.arraycopy(arr, 0, out, 0, len);
+    	return out;
+    }
+
+    //primitive iterator. nextInt() returns the raw int so a hot loop never boxes
+	public PrimitiveIterator.OfInt iterator()
+	{
+		return new PrimitiveIterator.OfInt ()
+		{
+			int index = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return arr[index++];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		if(len == 0)
+		{
+			return "[]";
+		}
+		else
+		{
+			StringBuilder sb = new StringBuilder(len).append("[");
+			for(int i = 0; i < len-1; i++)
+			{
+				sb.append(arr[i]).append(", ");
+			}
+			return sb.append(arr[len-1]).append("]").toString();
+		}
+	}
+}
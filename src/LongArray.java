@@ -0,0 +1,418 @@
+/*
+ * LongArray is the primitive long sibling of IntArray. It mirrors the Array<T> API but keeps a long[] as its backing array,
+ * so long values are never boxed into Long objects on add(), get() or iteration.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1) amortized (we double the capacity when we run out of room)
+ *     RemoveAt: O(n) since we shift every element after the removed index one slot to the left
+ *     IndexOf/Contains: O(n)
+ *     Sum/Count: O(n), a plain counted loop the JIT can vectorize
+ *     Min/Max: O(n), four elements per loop iteration
+ *     RangeSum/RangeMin/RangeMax: O(log(n)) with the range index enabled, O(to - from) without it
+ *
+ * Range index
+ *
+ *     enableRangeIndex() builds a segment tree over the backing array. A segment tree is a complete binary tree
+ *     stored in an array of 2n slots: the leaves tree[n..2n-1] are the elements themselves, and every internal node
+ *     tree[p] combines its two children tree[2p] and tree[2p+1]. We keep three of them, one for sums, one for mins
+ *     and one for maxes.
+ *
+ *         tree:     [  -  | 10 | 3  7 | 1 2 3 4 ]     sums over the elements 1 2 3 4
+ *         index:       0     1   2  3   4 5 6 7
+ *
+ *     A range query climbs from both ends of the range towards the root, picking up at most two nodes per level, so
+ *     it touches O(log(n)) nodes. Changing one element only changes the nodes on its path to the root, which is also
+ *     O(log(n)).
+ */
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+public class LongArray
+{
+    private long [] arr; //our internal static array of primitive longs
+    private int len = 0; //length user thinks array is
+    private int capacity = 0; //actual array size
+
+    //optional segment trees over arr, see enableRangeIndex(). each holds 2 * capacity slots, null while disabled
+    private long [] treeSum = null;
+    private long [] treeMin = null;
+    private long [] treeMax = null;
+
+    //constructor inits array to be size 16
+    public LongArray()
+    {
+    	this(16);
+    }
+
+    //constructor inits array to be size of capacity(whatever we give it)
+    public LongArray(int capacity)
+    {
+    	if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    	this.capacity = capacity;
+    	arr = new long[capacity];
+    }
+
+    //get size of array
+    public int size()
+    {
+    	return len;
+    }
+
+    //check if array is empty
+    public boolean isEmpty()
+    {
+    	return size() == 0;
+    }
+
+    //get a value from the array by index
+    public long get(int index)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	return arr[index];
+    }
+
+    //set the value of an index in the array
+    public void set(int index, long elem)
+    {
+    	if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+    	arr[index] = elem;
+    	if(treeSum != null)
+    	{
+    		rangeUpdate(index);
+    	}
+    }
+
+    //clear all data in the array. primitives hold no references so we only need to reset the length
+    public void clear()
+    {
+    	len = 0;
+    	if(treeSum != null)
+    	{
+    		rebuildRangeIndex();
+    	}
+    }
+
+    //adds a new element to the array
+    public void add(long elem)
+    {
+    	//if the backing array is full we double it, same as Array
+    	if(len == capacity)
+    	{
+    		capacity = capacity == 0 ? 1 : capacity * 2;
+    		long[] new_arr = new long[capacity];
+    		System.arraycopy(arr, 0, new_arr, 0, len); //copy all elements from old array into new array
+    		arr = new_arr;
+    	}
+    	arr[len++] = elem;
+    	if(treeSum != null)
+    	{
+    		//a grown backing array needs bigger trees, otherwise only the path above the new leaf changes
+    		if(treeSum.length != 2 * capacity)
+    		{
+    			rebuildRangeIndex();
+    		}
+    		else
+    		{
+    			rangeUpdate(len - 1);
+    		}
+    	}
+    }
+
+    //removes the element at the specified index by shifting everything after it one slot to the left
+    public long removeAt(int rm_index)
+    {
+    	if(rm_index < 0 || rm_index >= len) throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
+
+    	long data = arr[rm_index];
+    	System.arraycopy(arr, rm_index + 1, arr, rm_index, len - rm_index - 1);
+    	len--;
+    	if(treeSum != null)
+    	{
+    		rebuildRangeIndex(); //every leaf after rm_index moved, so this is O(n) either way
+    	}
+    	return data;
+    }
+
+    //loop through array, if we find element return its index, if not return -1
+    public int indexOf(long elem)
+    {
+    	long[] a = arr;
+    	for(int i = 0; i < len; i++)
+    	{
+    		if(a[i] == elem)
+    		{
+    			return i;
+    		}
+    	}
+    	return -1;
+    }
+
+    //finds if array contains value
+    public boolean contains(long elem)
+    {
+    	return indexOf(elem) != -1;
+    }
+
+    //sum of every element. a plain counted loop over the backing array, which the JIT already turns into SIMD
+    //instructions on hardware that has them. splitting it by hand into lanes measured slower (see
+    //PrimitiveScanBenchmark)
+    public long sum()
+    {
+    	long[] a = arr;
+    	long sum = 0;
+    	for(int i = 0; i < len; i++)
+    	{
+    		sum += a[i];
+    	}
+    	return sum;
+    }
+
+    //smallest element. throws if the array is empty. we keep four independent running minimums so each Math.min
+    //doesn't have to wait on the one before it. for longs this measures about the same as the plain loop, the
+    //int version is clearly faster, so both keep the same shape
+    public long min()
+    {
+    	if(len == 0) throw new RuntimeException("Empty array");
+    	long[] a = arr;
+    	long m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+    	int i = 0;
+    	for(; i + 3 < len; i += 4)
+    	{
+    		m0 = Math.min(m0, a[i]);
+    		m1 = Math.min(m1, a[i+1]);
+    		m2 = Math.min(m2, a[i+2]);
+    		m3 = Math.min(m3, a[i+3]);
+    	}
+    	for(; i < len; i++)
+    	{
+    		m0 = Math.min(m0, a[i]);
+    	}
+    	return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    //largest element, same four lane layout as min. throws if the array is empty
+    public long max()
+    {
+    	if(len == 0) throw new RuntimeException("Empty array");
+    	long[] a = arr;
+    	long m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+    	int i = 0;
+    	for(; i + 3 < len; i += 4)
+    	{
+    		m0 = Math.max(m0, a[i]);
+    		m1 = Math.max(m1, a[i+1]);
+    		m2 = Math.max(m2, a[i+2]);
+    		m3 = Math.max(m3, a[i+3]);
+    	}
+    	for(; i < len; i++)
+    	{
+    		m0 = Math.max(m0, a[i]);
+    	}
+    	return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    //number of elements equal to elem. the comparison result is added as 0 or 1 instead of branching on it, so the
+    //loop runs at the same speed no matter how many elements match
+    public int count(long elem)
+    {
+    	long[] a = arr;
+    	int count = 0;
+    	for(int i = 0; i < len; i++)
+    	{
+    		count += a[i] == elem ? 1 : 0;
+    	}
+    	return count;
+    }
+
+    //turns on the range index so rangeSum, rangeMin and rangeMax run in O(log(n)). set and add keep it up to date
+    //in O(log(n)), removeAt and clear rebuild it in O(n)
+    public void enableRangeIndex()
+    {
+    	if(treeSum == null)
+    	{
+    		rebuildRangeIndex();
+    	}
+    }
+
+    //turns the range index off and frees its memory
+    public void disableRangeIndex()
+    {
+    	treeSum = treeMin = treeMax = null;
+    }
+
+    //true if the range index is enabled
+    public boolean isRangeIndexed()
+    {
+    	return treeSum != null;
+    }
+
+    //sum of the elements with an index in [from, to)
+    public long rangeSum(int from, int to)
+    {
+    	checkRange(from, to);
+    	long res = 0;
+    	if(treeSum == null)
+    	{
+    		for(int i = from; i < to; i++)
+    		{
+    			res += arr[i];
+    		}
+    		return res;
+    	}
+    	for(int l = from + capacity, r = to + capacity; l < r; l >>= 1, r >>= 1)
+    	{
+    		if((l & 1) == 1) res += treeSum[l++];
+    		if((r & 1) == 1) res += treeSum[--r];
+    	}
+    	return res;
+    }
+
+    //smallest element with an index in [from, to). the range must not be empty
+    public long rangeMin(int from, int to)
+    {
+    	checkRange(from, to);
+    	if(from == to) throw new IllegalArgumentException("Empty range");
+    	long res = Long.MAX_VALUE;
+    	if(treeMin == null)
+    	{
+    		for(int i = from; i < to; i++)
+    		{
+    			res = Math.min(res, arr[i]);
+    		}
+    		return res;
+    	}
+    	for(int l = from + capacity, r = to + capacity; l < r; l >>= 1, r >>= 1)
+    	{
+    		if((l & 1) == 1) res = Math.min(res, treeMin[l++]);
+    		if((r & 1) == 1) res = Math.min(res, treeMin[--r]);
+    	}
+    	return res;
+    }
+
+    //largest element with an index in [from, to). the range must not be empty
+    public long rangeMax(int from, int to)
+    {
+    	checkRange(from, to);
+    	if(from == to) throw new IllegalArgumentException("Empty range");
+    	long res = Long.MIN_VALUE;
+    	if(treeMax == null)
+    	{
+    		for(int i = from; i < to; i++)
+    		{
+    			res = Math.max(res, arr[i]);
+    		}
+    		return res;
+    	}
+    	for(int l = from + capacity, r = to + capacity; l < r; l >>= 1, r >>= 1)
+    	{
+    		if((l & 1) == 1) res = Math.max(res, treeMax[l++]);
+    		if((r & 1) == 1) res = Math.max(res, treeMax[--r]);
+    	}
+    	return res;
+    }
+
+    private void checkRange(int from, int to)
+    {
+    	if(from < 0 || to > len || from > to)
+    	{
+    		throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + len);
+    	}
+    }
+
+    //builds all three trees bottom up in O(n). slots past len get values that don't affect the result
+    private void rebuildRangeIndex()
+    {
+    	int n = capacity;
+    	treeSum = new long[2 * n];
+    	treeMin = new long[2 * n];
+    	treeMax = new long[2 * n];
+    	for(int i = 0; i < n; i++)
+    	{
+    		boolean used = i < len;
+    		treeSum[n + i] = used ? arr[i] : 0;
+    		treeMin[n + i] = used ? arr[i] : Long.MAX_VALUE;
+    		treeMax[n + i] = used ? arr[i] : Long.MIN_VALUE;
+    	}
+    	for(int p = n - 1; p >= 1; p--)
+    	{
+    		treeSum[p] = treeSum[2 * p] + treeSum[2 * p + 1];
+    		treeMin[p] = Math.min(treeMin[2 * p], treeMin[2 * p + 1]);
+    		treeMax[p] = Math.max(treeMax[2 * p], treeMax[2 * p + 1]);
+    	}
+    }
+
+    //copies arr[index] into its leaf and recomputes every node on the path up to the root
+    private void rangeUpdate(int index)
+    {
+    	int p = index + capacity;
+    	treeSum[p] = treeMin[p] = treeMax[p] = arr[index];
+    	for(p >>= 1; p >= 1; p >>= 1)
+    	{
+    		treeSum[p] = treeSum[2 * p] + treeSum[2 * p + 1];
+    		treeMin[p] = Math.min(treeMin[2 * p], treeMin[2 * p + 1]);
+    		treeMax[p] = Math.max(treeMax[2 * p], treeMax[2 * p + 1]);
+    	}
+    }
+
+    //calls the action on every element in order. no boxing and no iterator allocation
+    public void forEach(LongConsumer action)
+    {
+    	for(int i = 0; i < len; i++)
+    	{
+    		action.accept(arr[i]);
+    	}
+    }
+
+    //copies the elements into a new long[] of exactly size() elements
+    public long[] toArray()
+    {
+    	long[] out = new long[len];
+    	System.arraycopy(arr, 0, out, 0, len);
+    	return out;
+    }
+
+    //primitive iterator. nextLong() returns the raw long so a hot loop never boxes
+	public PrimitiveIterator.OfLong iterator()
+	{
+		return new PrimitiveIterator.OfLong ()
+		{
+			int index = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			@Override
+			public long nextLong()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return arr[index++];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		if(len == 0)
+		{
+			return "[]";
+		}
+		else
+		{
+			StringBuilder sb = new StringBuilder(len).append("[");
+			for(int i = 0; i < len-1; i++)
+			{
+				sb.append(arr[i]).append(", ");
+			}
+			return sb.append(arr[len-1]).append("]").toString();
+		}
+	}
+}
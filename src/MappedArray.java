@@ -0,0 +1,299 @@
+/*
+ * What is a memory mapped array?
+ *
+ *     A memory mapped file is a file whose bytes the operating system maps straight into our address space. Reading
+ *     and writing the mapped buffer reads and writes the file, and the OS pages the data in and out for us.
+ *
+ *     MappedArray is an append-able array whose records live inside such a file. Every element is encoded with a
+ *     FixedWidthCodec, so the record at index i always starts at byte HEADER_BYTES + i * width. Because the file
+ *     already holds the records in the exact layout we use in memory, reopening it does not deserialize anything. We
+ *     just read the header and map the file again, which takes milliseconds no matter how big the array is.
+ *
+ * File layout
+ *
+ *     [ header (64 bytes) ][ chunk 0 ][ chunk 1 ] ... [ chunk k ]
+ *
+ *     The header holds a magic number, the record width, the number of records per chunk and the current size.
+ *     The file is mapped one chunk at a time. When the last chunk is full we map one more chunk past the end of the
+ *     file (which grows the file), so appending never remaps or copies the chunks we already have.
+ *
+ * Durability
+ *
+ *     Writes land in the OS page cache and reach the disk whenever the OS decides to flush them, each page on its
+ *     own schedule. The size in the header is therefore only written by force(), never by add, so the OS can't
+ *     flush a size that is ahead of the records it covers. force() first writes every dirty chunk to the storage
+ *     device and only then stores and forces the new size. close() calls force(), so closing is always durable.
+ *     Records added after the last force() (or close()) are not part of the array when the file is reopened.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1) amortized
+ *     Reopen: O(number of chunks), no record is read
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class MappedArray <T> implements Iterable <T>, AutoCloseable
+{
+	private static final int MAGIC = 0x4D415252; // "MARR"
+	private static final int HEADER_BYTES = 64;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int WIDTH_OFFSET = 4;
+	private static final int CHUNK_OFFSET = 8;
+	private static final int SIZE_OFFSET = 16;
+
+	//default chunk size in bytes, 64MB
+	private static final int DEFAULT_CHUNK_BYTES = 1 << 26;
+
+	private final FileChannel channel;
+	private final FixedWidthCodec<T> codec;
+	private final int width; //bytes per record
+	private final int chunkShift; //log2 of the number of records per chunk
+	private final long chunkMask; //records per chunk - 1
+	private final MappedByteBuffer header;
+
+	private MappedByteBuffer [] chunks = new MappedByteBuffer[4]; //only the first chunkCount are mapped
+	private int chunkCount = 0;
+	private long len = 0; //length user thinks array is
+	private boolean closed = false;
+
+	//opens the array stored at file, creating it if it doesn't exist yet
+	public static <T> MappedArray<T> open(Path file, FixedWidthCodec<T> codec) throws IOException
+	{
+		if(codec == null) throw new IllegalArgumentException("codec cannot be null");
+		int records = DEFAULT_CHUNK_BYTES / Math.max(1, codec.width());
+		return open(file, codec, Math.max(1, Integer.highestOneBit(Math.max(1, records))));
+	}
+
+	//opens the array stored at file, creating it with the given records per chunk if it doesn't exist yet.
+	//an existing file keeps the chunk size it was created with
+	public static <T> MappedArray<T> open(Path file, FixedWidthCodec<T> codec, int recordsPerChunk) throws IOException
+	{
+		if(codec == null) throw new IllegalArgumentException("codec cannot be null");
+		if(codec.width() <= 0) throw new IllegalArgumentException("Illegal record width: " + codec.width());
+		if(recordsPerChunk <= 0 || Integer.bitCount(recordsPerChunk) != 1)
+		{
+			throw new IllegalArgumentException("Records per chunk must be a power of two: " + recordsPerChunk);
+		}
+		if((long) recordsPerChunk * codec.width() > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Chunk too large: " + recordsPerChunk + " records of " + codec.width() + " bytes");
+		}
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			return new MappedArray<T>(channel, codec, recordsPerChunk);
+		}
+		catch(IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	private MappedArray(FileChannel channel, FixedWidthCodec<T> codec, int recordsPerChunk) throws IOException
+	{
+		this.channel = channel;
+		this.codec = codec;
+		this.width = codec.width();
+
+		boolean fresh = channel.size() == 0;
+		header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+
+		if(fresh)
+		{
+			header.putInt(MAGIC_OFFSET, MAGIC);
+			header.putInt(WIDTH_OFFSET, width);
+			header.putInt(CHUNK_OFFSET, recordsPerChunk);
+			header.putLong(SIZE_OFFSET, 0);
+		}
+		else
+		{
+			//validate the header of an existing file before we trust anything in it
+			if(header.getInt(MAGIC_OFFSET) != MAGIC) throw new IOException("Not a MappedArray file");
+			if(header.getInt(WIDTH_OFFSET) != width)
+			{
+				throw new IOException("Record width mismatch: file has " + header.getInt(WIDTH_OFFSET) + ", codec has " + width);
+			}
+			recordsPerChunk = header.getInt(CHUNK_OFFSET);
+			if(recordsPerChunk <= 0 || Integer.bitCount(recordsPerChunk) != 1) throw new IOException("Corrupt chunk size");
+		}
+
+		this.chunkShift = Integer.numberOfTrailingZeros(recordsPerChunk);
+		this.chunkMask = recordsPerChunk - 1;
+
+		long size = header.getLong(SIZE_OFFSET);
+		if(size < 0) throw new IOException("Corrupt size: " + size);
+
+		//map just enough chunks to cover the records that are already in the file
+		while(capacity() < size)
+		{
+			mapChunk();
+		}
+		len = size;
+	}
+
+	//get size of array
+	public long size()
+	{
+		return len;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//number of records we can hold before we need to map another chunk
+	public long capacity()
+	{
+		return (long) chunkCount << chunkShift;
+	}
+
+	//get a value from the array by index
+	public T get(long index)
+	{
+		checkIndex(index);
+		return codec.read(chunks[(int) (index >>> chunkShift)], (int) (index & chunkMask) * width);
+	}
+
+	//set the value of an index in the array
+	public void set(long index, T elem)
+	{
+		checkIndex(index);
+		codec.write(chunks[(int) (index >>> chunkShift)], (int) (index & chunkMask) * width, elem);
+	}
+
+	//adds a new element to the end of the array, mapping one more chunk if the last one is full
+	public void add(T elem)
+	{
+		checkOpen();
+		if(len == capacity())
+		{
+			try
+			{
+				mapChunk();
+			}
+			catch(IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+		codec.write(chunks[(int) (len >>> chunkShift)], (int) (len & chunkMask) * width, elem);
+		len++;
+	}
+
+	//removes and returns the last element
+	public T removeLast()
+	{
+		checkOpen();
+		if(len == 0) throw new RuntimeException("Empty array");
+		T data = get(len - 1);
+		len--;
+		return data;
+	}
+
+	//clear all data in the array. the file keeps its size so the chunks can be reused by the next adds
+	public void clear()
+	{
+		checkOpen();
+		len = 0;
+	}
+
+	//writes every modified chunk to the storage device, then stores the current size in the header and forces that
+	//too. the size only reaches the header after the records it covers are on the device
+	public void force()
+	{
+		checkOpen();
+		for(int i = 0; i < chunkCount; i++)
+		{
+			chunks[i].force();
+		}
+		header.putLong(SIZE_OFFSET, len);
+		header.force();
+	}
+
+	//forces the records and the size to disk (see force()) and closes the file
+	@Override
+	public void close() throws IOException
+	{
+		if(closed)
+		{
+			return;
+		}
+		try
+		{
+			force();
+		}
+		finally
+		{
+			closed = true;
+			for(int i = 0; i < chunkCount; i++)
+			{
+				chunks[i] = null;
+			}
+			chunkCount = 0;
+			channel.close();
+		}
+	}
+
+	//maps the next chunk of the file. mapping past the end of the file grows the file
+	private void mapChunk() throws IOException
+	{
+		if(chunkCount == chunks.length)
+		{
+			MappedByteBuffer[] new_chunks = new MappedByteBuffer[chunks.length * 2];
+			System.arraycopy(chunks, 0, new_chunks, 0, chunkCount);
+			chunks = new_chunks;
+		}
+		long chunkBytes = (chunkMask + 1) * width;
+		MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + chunkCount * chunkBytes, chunkBytes);
+		chunk.order(ByteOrder.LITTLE_ENDIAN);
+		chunks[chunkCount++] = chunk;
+	}
+
+	private void checkIndex(long index)
+	{
+		checkOpen();
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+	}
+
+	private void checkOpen()
+	{
+		if(closed) throw new IllegalStateException("Array is closed");
+	}
+
+	//iterates the records in order, decoding one record per next()
+	@Override
+	public Iterator<T> iterator()
+	{
+		checkOpen();
+		return new Iterator <T> ()
+		{
+			long index = 0;
+
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			public T next()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return get(index++);
+			}
+		};
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Why store an array off heap?
+ *
+ *     Array<T> keeps its elements inside an Object[] on the java heap. That has two limits when we want to hold
+ *     hundreds of millions of records:
+ *
+ *         A java array is indexed by an int, so it can never hold more than 2^31 - 1 elements.
+ *
+ *         Every element is an object the garbage collector has to trace, so the bigger the array gets the longer
+ *         the GC pauses get.
+ *
+ *     OffHeapArray stores the raw bytes of every element in direct ByteBuffers, which live outside of the heap. A
+ *     FixedWidthCodec turns each element into exactly width() bytes, so the element at index i always sits at byte
+ *     i * width(). The GC only ever sees a handful of buffer objects no matter how many records we store.
+ *
+ * Pages
+ *
+ *     A single ByteBuffer is also int indexed, so we split the storage into pages. Every page holds the same power of
+ *     two number of records, which means finding a record is just a shift and a mask:
+ *
+ *         page   = index >>> pageShift
+ *         offset = (index & pageMask) * width
+ *
+ *     When we run out of room we allocate one more page. We never copy the records we already have.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1) amortized
+ *     Clear: O(1)
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class OffHeapArray <T> implements Iterable <T>, AutoCloseable
+{
+	//default page size in bytes, 16MB
+	private static final int DEFAULT_PAGE_BYTES = 1 << 24;
+
+	private final FixedWidthCodec<T> codec; //turns elements into bytes and back
+	private final int width; //bytes per record
+	private final int pageShift; //log2 of the number of records per page
+	private final long pageMask; //records per page - 1
+
+	private ByteBuffer [] pages = new ByteBuffer[4]; //our off heap pages, only the first pageCount are allocated
+	private int pageCount = 0;
+	private long len = 0; //length user thinks array is
+	private boolean closed = false;
+
+	//constructor picks the biggest power of two records per page that fits in 16MB
+	public OffHeapArray(FixedWidthCodec<T> codec)
+	{
+		this(codec, recordsPerPage(codec));
+	}
+
+	//constructor with an explicit number of records per page. must be a power of two
+	public OffHeapArray(FixedWidthCodec<T> codec, int recordsPerPage)
+	{
+		if(codec == null) throw new IllegalArgumentException("codec cannot be null");
+		if(codec.width() <= 0) throw new IllegalArgumentException("Illegal record width: " + codec.width());
+		if(recordsPerPage <= 0 || Integer.bitCount(recordsPerPage) != 1)
+		{
+			throw new IllegalArgumentException("Records per page must be a power of two: " + recordsPerPage);
+		}
+		if((long) recordsPerPage * codec.width() > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Page too large: " + recordsPerPage + " records of " + codec.width() + " bytes");
+		}
+		this.codec = codec;
+		this.width = codec.width();
+		this.pageShift = Integer.numberOfTrailingZeros(recordsPerPage);
+		this.pageMask = recordsPerPage - 1;
+	}
+
+	//finds the largest power of two number of records that fits into one default page
+	private static int recordsPerPage(FixedWidthCodec<?> codec)
+	{
+		if(codec == null) throw new IllegalArgumentException("codec cannot be null");
+		int records = DEFAULT_PAGE_BYTES / Math.max(1, codec.width());
+		return Math.max(1, Integer.highestOneBit(Math.max(1, records)));
+	}
+
+	//get size of array. this is a long because we can hold more than 2^31 elements
+	public long size()
+	{
+		return len;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//number of records we can hold before we need another page
+	public long capacity()
+	{
+		return (long) pageCount << pageShift;
+	}
+
+	//get a value from the array by index
+	public T get(long index)
+	{
+		checkIndex(index);
+		return codec.read(pages[(int) (index >>> pageShift)], (int) (index & pageMask) * width);
+	}
+
+	//set the value of an index in the array
+	public void set(long index, T elem)
+	{
+		checkIndex(index);
+		codec.write(pages[(int) (index >>> pageShift)], (int) (index & pageMask) * width, elem);
+	}
+
+	//adds a new element to the end of the array, allocating one more page if the last one is full
+	public void add(T elem)
+	{
+		checkOpen();
+		if(len == capacity())
+		{
+			addPage();
+		}
+		codec.write(pages[(int) (len >>> pageShift)], (int) (len & pageMask) * width, elem);
+		len++;
+	}
+
+	//removes and returns the last element. O(1) since nothing needs to be shifted
+	public T removeLast()
+	{
+		checkOpen();
+		if(len == 0) throw new RuntimeException("Empty array");
+		T data = get(len - 1);
+		len--;
+		return data;
+	}
+
+	//clear all data in the array. we keep the pages around so they can be reused by the next adds
+	public void clear()
+	{
+		checkOpen();
+		len = 0;
+	}
+
+	//drops every page. direct memory is handed back once the buffers are collected, and any further use of this
+	//array throws an IllegalStateException
+	@Override
+	public void close()
+	{
+		if(closed)
+		{
+			return;
+		}
+		for(int i = 0; i < pageCount; i++)
+		{
+			pages[i] = null;
+		}
+		pages = null;
+		pageCount = 0;
+		len = 0;
+		closed = true;
+	}
+
+	//allocates a new direct page and adds it to the page table
+	private void addPage()
+	{
+		if(pageCount == pages.length)
+		{
+			//the page table only holds references to pages, so copying it is cheap
+			ByteBuffer[] new_pages = new ByteBuffer[pages.length * 2];
+			System.arraycopy(pages, 0, new_pages, 0, pageCount);
+			pages = new_pages;
+		}
+		pages[pageCount++] = ByteBuffer.allocateDirect((int) ((pageMask + 1) * width)).order(ByteOrder.nativeOrder());
+	}
+
+	private void checkIndex(long index)
+	{
+		checkOpen();
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+	}
+
+	private void checkOpen()
+	{
+		if(closed) throw new IllegalStateException("Array is closed");
+	}
+
+	//iterates the records in order. every next() decodes one record
+	@Override
+	public Iterator<T> iterator()
+	{
+		checkOpen();
+		return new Iterator <T> ()
+		{
+			long index = 0;
+
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			public T next()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return get(index++);
+			}
+		};
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * What is a persistent tree?
+ *
+ *     A persistent data structure never changes once it is built. add() and remove() leave the tree they were
+ *     called on alone and return a new version with the change applied, so every old version stays valid and can
+ *     still be read.
+ *
+ *     Copying the whole tree for every change would make that useless. Instead we use path copying: a change only
+ *     touches the nodes on the path from the root down to where the change happens, so only those nodes are copied.
+ *     Every other subtree is shared between the old and the new version. Adding 5 below copies 3 nodes and shares
+ *     the rest:
+ *
+ *         old version            new version
+ *
+ *              8                      8'
+ *            /   \                  /   \
+ *           4     9      ->        4'    9  (shared)
+ *          / \                    / \
+ *         2   6                  2   6'     (2 is shared)
+ *                                   /
+ *                                  5
+ *
+ *     Like BinaryTree this is an AVL tree, so the path, and with it the number of copied nodes, is O(log(n)). A
+ *     rotation only rebuilds nodes that are on the copied path anyway, or right next to it.
+ *
+ * Snapshots
+ *
+ *     Since a version can never change, holding on to one is a snapshot, and taking a snapshot is just reading a
+ *     reference: O(1). A writer keeps the current version in a volatile field (or an AtomicReference if there is
+ *     more than one writer) and replaces it after every update:
+ *
+ *         current = current.add(x);
+ *
+ *     Readers grab current once and use it for as long as they like, without any locks. Every field of every node
+ *     is final, so the Java memory model guarantees readers see fully built nodes.
+ *
+ * Complexity Analysis
+ *
+ *     Add/Remove: O(log(n)) time and O(log(n)) new nodes
+ *     Contains: O(log(n))
+ *     Snapshot: O(1)
+ *     Height/Size: O(1)
+ */
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class PersistentBinaryTree <T extends Comparable<T>> implements Iterable <T>
+{
+	// root of this version, null for an empty tree
+	private final Node<T> root;
+
+	// an immutable node. height and size are computed once when the node is created
+	private static final class Node <T>
+	{
+		final T data;
+		final Node<T> left, right;
+		final int height;
+		final int size;
+
+		Node(Node<T> left, T data, Node<T> right)
+		{
+			this.data = data;
+			this.left = left;
+			this.right = right;
+			this.height = 1 + Math.max(height(left), height(right));
+			this.size = 1 + size(left) + size(right);
+		}
+	}
+
+	// an empty tree
+	public PersistentBinaryTree()
+	{
+		this(null);
+	}
+
+	private PersistentBinaryTree(Node<T> root)
+	{
+		this.root = root;
+	}
+
+	// check if this version is empty
+	public boolean isEmpty()
+	{
+		return root == null;
+	}
+
+	// get number of nodes in this version
+	public int size()
+	{
+		return size(root);
+	}
+
+	// returns the height of this version, an empty tree has height 0 and a single node has height 1
+	public int height()
+	{
+		return height(root);
+	}
+
+	// returns true if the element exists in this version
+	public boolean contains(T elem)
+	{
+		Node<T> node = root;
+		while(node != null)
+		{
+			int cmp = elem.compareTo(node.data);
+			if(cmp == 0)
+			{
+				return true;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		return false;
+	}
+
+	// returns a new version that also contains elem. if elem is already there nothing needs to change and this
+	// same version is returned
+	public PersistentBinaryTree<T> add(T elem)
+	{
+		if(elem == null) throw new IllegalArgumentException("Element cannot be null");
+		Node<T> newRoot = add(root, elem);
+		return newRoot == root ? this : new PersistentBinaryTree<T>(newRoot);
+	}
+
+	// returns a new version without elem. if elem isn't there this same version is returned
+	public PersistentBinaryTree<T> remove(T elem)
+	{
+		Node<T> newRoot = remove(root, elem);
+		return newRoot == root ? this : new PersistentBinaryTree<T>(newRoot);
+	}
+
+	// returns node's subtree with elem added. nodes on the path down are copied, anything we don't pass through is
+	// reused. if elem is already there the same node comes back, which tells the callers above that nothing changed
+	private Node<T> add(Node<T> node, T elem)
+	{
+		if(node == null)
+		{
+			return new Node<T>(null, elem, null);
+		}
+
+		int cmp = elem.compareTo(node.data);
+		if(cmp < 0)
+		{
+			Node<T> left = add(node.left, elem);
+			return left == node.left ? node : balance(left, node.data, node.right);
+		}
+		if(cmp > 0)
+		{
+			Node<T> right = add(node.right, elem);
+			return right == node.right ? node : balance(node.left, node.data, right);
+		}
+		return node;
+	}
+
+	// returns node's subtree with elem removed, same sharing rules as add
+	private Node<T> remove(Node<T> node, T elem)
+	{
+		if(node == null)
+		{
+			return null;
+		}
+
+		int cmp = elem.compareTo(node.data);
+		if(cmp < 0)
+		{
+			Node<T> left = remove(node.left, elem);
+			return left == node.left ? node : balance(left, node.data, node.right);
+		}
+		if(cmp > 0)
+		{
+			Node<T> right = remove(node.right, elem);
+			return right == node.right ? node : balance(node.left, node.data, right);
+		}
+
+		// found it. with at most one child that child takes its place, otherwise the smallest value of the right
+		// subtree (the successor) does
+		if(node.left == null)
+		{
+			return node.right;
+		}
+		if(node.right == null)
+		{
+			return node.left;
+		}
+		Node<T> successor = node.right;
+		while(successor.left != null)
+		{
+			successor = successor.left;
+		}
+		return balance(node.left, successor.data, removeMin(node.right));
+	}
+
+	// returns node's subtree without its smallest element
+	private Node<T> removeMin(Node<T> node)
+	{
+		if(node.left == null)
+		{
+			return node.right;
+		}
+		return balance(removeMin(node.left), node.data, node.right);
+	}
+
+	// builds a node from left, data and right, rotating if the two sides ended up more than one level apart.
+	// rotations just build new nodes in the rotated shape, the old ones may still belong to other versions
+	private Node<T> balance(Node<T> left, T data, Node<T> right)
+	{
+		int bf = height(right) - height(left);
+
+		// left heavy subtree
+		if(bf < -1)
+		{
+			// left-left case, one right rotation
+			if(height(left.left) >= height(left.right))
+			{
+				return new Node<T>(left.left, left.data, new Node<T>(left.right, data, right));
+			}
+			// left-right case, the left child's right child ends up on top
+			Node<T> mid = left.right;
+			return new Node<T>(new Node<T>(left.left, left.data, mid.left), mid.data, new Node<T>(mid.right, data, right));
+		}
+		// right heavy subtree
+		if(bf > 1)
+		{
+			// right-right case, one left rotation
+			if(height(right.right) >= height(right.left))
+			{
+				return new Node<T>(new Node<T>(left, data, right.left), right.data, right.right);
+			}
+			// right-left case
+			Node<T> mid = right.left;
+			return new Node<T>(new Node<T>(left, data, mid.left), mid.data, new Node<T>(mid.right, right.data, right.right));
+		}
+		return new Node<T>(left, data, right);
+	}
+
+	private static int height(Node<?> node)
+	{
+		return node == null ? 0 : node.height;
+	}
+
+	private static int size(Node<?> node)
+	{
+		return node == null ? 0 : node.size;
+	}
+
+	// lazy in order iterator over this version. the version can't change, so it stays valid no matter what other
+	// threads do to newer versions
+	@Override
+	public Iterator <T> iterator()
+	{
+		final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+		pushLeftSpine(stack, root);
+
+		return new Iterator <T> ()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public T next()
+			{
+				if(!hasNext()) throw new NoSuchElementException();
+				Node<T> node = stack.pop();
+				pushLeftSpine(stack, node.right);
+				return node.data;
+			}
+		};
+	}
+
+	private static <T> void pushLeftSpine(ArrayDeque<Node<T>> stack, Node<T> node)
+	{
+		while(node != null)
+		{
+			stack.push(node);
+			node = node.left;
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Benchmark for the scans and reductions of IntArray and LongArray.
+ *
+ *     Run it with a plain java command, no harness needed:
+ *
+ *         java PrimitiveScanBenchmark [elements] [repetitions]
+ *
+ *     For every operation it times three versions over the same data:
+ *
+ *         boxed:  the same loop over an Array<Integer> / Array<Long>, one boxed element at a time
+ *         other:  the loop shape we did NOT pick (four lanes for sum, indexOf and count, one lane for min and max)
+ *         array:  the IntArray / LongArray method itself
+ *
+ *     so it shows both the speedup over boxing and that the loop shape in the class is the faster of the two. Every
+ *     version is warmed up first so the JIT has compiled it, and each result is folded into a sink so it can't be
+ *     optimized away. indexOf looks for a value that isn't there, so it always scans the whole array.
+ *
+ *     The numbers are wall clock times of a single thread, good enough to compare loop shapes on one machine. They
+ *     are not a substitute for a proper JMH run.
+ */
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+public class PrimitiveScanBenchmark
+{
+	private static final int WARMUP = 10;
+
+	//results are xor'ed into here so the JIT can't drop a loop whose result is unused
+	private static long sink = 0;
+
+	public static void main(String[] args)
+	{
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+		int reps = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+		Random random = new Random(42);
+		final IntArray ints = new IntArray(n);
+		final LongArray longs = new LongArray(n);
+		final Array<Integer> boxedInts = new Array<Integer>(n);
+		final Array<Long> boxedLongs = new Array<Long>(n);
+		for(int i = 0; i < n; i++)
+		{
+			int value = random.nextInt(1000);
+			ints.add(value);
+			longs.add(value);
+			boxedInts.add(value);
+			boxedLongs.add((long) value);
+		}
+		final int[] intData = ints.toArray();
+		final long[] longData = longs.toArray();
+		final int missing = -1;
+
+		System.out.println(n + " elements, " + reps + " repetitions, ms per repetition");
+		System.out.printf("%-14s %10s %10s %10s%n", "operation", "boxed", "other", "array");
+
+		row("int sum", reps,
+				() -> { long s = 0; for(int i = 0; i < boxedInts.size(); i++) s += boxedInts.get(i); return s; },
+				() -> sumLanes(intData),
+				() -> ints.sum());
+		row("int indexOf", reps,
+				() -> boxedInts.indexOf(missing),
+				() -> indexOfLanes(intData, missing),
+				() -> ints.indexOf(missing));
+		row("int count", reps,
+				() -> { int c = 0; for(int i = 0; i < boxedInts.size(); i++) c += boxedInts.get(i) == 7 ? 1 : 0; return c; },
+				() -> countLanes(intData, 7),
+				() -> ints.count(7));
+		row("int min", reps,
+				() -> { int m = boxedInts.get(0); for(int i = 1; i < boxedInts.size(); i++) m = Math.min(m, boxedInts.get(i)); return m; },
+				() -> minPlain(intData),
+				() -> ints.min());
+		row("int max", reps,
+				() -> { int m = boxedInts.get(0); for(int i = 1; i < boxedInts.size(); i++) m = Math.max(m, boxedInts.get(i)); return m; },
+				() -> maxPlain(intData),
+				() -> ints.max());
+
+		row("long sum", reps,
+				() -> { long s = 0; for(int i = 0; i < boxedLongs.size(); i++) s += boxedLongs.get(i); return s; },
+				() -> sumLanes(longData),
+				() -> longs.sum());
+		row("long indexOf", reps,
+				() -> boxedLongs.indexOf((long) missing),
+				() -> indexOfLanes(longData, missing),
+				() -> longs.indexOf(missing));
+		row("long count", reps,
+				() -> { int c = 0; for(int i = 0; i < boxedLongs.size(); i++) c += boxedLongs.get(i) == 7 ? 1 : 0; return c; },
+				() -> countLanes(longData, 7),
+				() -> longs.count(7));
+		row("long min", reps,
+				() -> { long m = boxedLongs.get(0); for(int i = 1; i < boxedLongs.size(); i++) m = Math.min(m, boxedLongs.get(i)); return m; },
+				() -> minPlain(longData),
+				() -> longs.min());
+		row("long max", reps,
+				() -> { long m = boxedLongs.get(0); for(int i = 1; i < boxedLongs.size(); i++) m = Math.max(m, boxedLongs.get(i)); return m; },
+				() -> maxPlain(longData),
+				() -> longs.max());
+
+		System.out.println("(sink " + sink + ")");
+	}
+
+	private static void row(String name, int reps, LongSupplier boxed, LongSupplier other, LongSupplier array)
+	{
+		System.out.printf("%-14s %10.2f %10.2f %10.2f%n", name, time(boxed, reps), time(other, reps), time(array, reps));
+	}
+
+	//average ms per call after WARMUP untimed calls
+	private static double time(LongSupplier op, int reps)
+	{
+		for(int i = 0; i < WARMUP; i++)
+		{
+			sink ^= op.getAsLong();
+		}
+		long start = System.nanoTime();
+		for(int i = 0; i < reps; i++)
+		{
+			sink ^= op.getAsLong();
+		}
+		return (System.nanoTime() - start) / 1e6 / reps;
+	}
+
+	//the loop shapes the arrays don't use, kept here so the benchmark can compare against them
+
+	private static long sumLanes(int[] a)
+	{
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			s0 += a[i];
+			s1 += a[i+1];
+			s2 += a[i+2];
+			s3 += a[i+3];
+		}
+		for(; i < a.length; i++)
+		{
+			s0 += a[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	private static long sumLanes(long[] a)
+	{
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			s0 += a[i];
+			s1 += a[i+1];
+			s2 += a[i+2];
+			s3 += a[i+3];
+		}
+		for(; i < a.length; i++)
+		{
+			s0 += a[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	private static int indexOfLanes(int[] a, int elem)
+	{
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			if((a[i] == elem) | (a[i+1] == elem) | (a[i+2] == elem) | (a[i+3] == elem))
+			{
+				break;
+			}
+		}
+		for(; i < a.length; i++)
+		{
+			if(a[i] == elem)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfLanes(long[] a, long elem)
+	{
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			if((a[i] == elem) | (a[i+1] == elem) | (a[i+2] == elem) | (a[i+3] == elem))
+			{
+				break;
+			}
+		}
+		for(; i < a.length; i++)
+		{
+			if(a[i] == elem)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int countLanes(int[] a, int elem)
+	{
+		int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			c0 += a[i] == elem ? 1 : 0;
+			c1 += a[i+1] == elem ? 1 : 0;
+			c2 += a[i+2] == elem ? 1 : 0;
+			c3 += a[i+3] == elem ? 1 : 0;
+		}
+		for(; i < a.length; i++)
+		{
+			c0 += a[i] == elem ? 1 : 0;
+		}
+		return (c0 + c1) + (c2 + c3);
+	}
+
+	private static int countLanes(long[] a, long elem)
+	{
+		int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+		int i = 0;
+		for(; i + 3 < a.length; i += 4)
+		{
+			c0 += a[i] == elem ? 1 : 0;
+			c1 += a[i+1] == elem ? 1 : 0;
+			c2 += a[i+2] == elem ? 1 : 0;
+			c3 += a[i+3] == elem ? 1 : 0;
+		}
+		for(; i < a.length; i++)
+		{
+			c0 += a[i] == elem ? 1 : 0;
+		}
+		return (c0 + c1) + (c2 + c3);
+	}
+
+	private static int minPlain(int[] a)
+	{
+		int m = a[0];
+		for(int i = 1; i < a.length; i++)
+		{
+			m = Math.min(m, a[i]);
+		}
+		return m;
+	}
+
+	private static long minPlain(long[] a)
+	{
+		long m = a[0];
+		for(int i = 1; i < a.length; i++)
+		{
+			m = Math.min(m, a[i]);
+		}
+		return m;
+	}
+
+	private static int maxPlain(int[] a)
+	{
+		int m = a[0];
+		for(int i = 1; i < a.length; i++)
+		{
+			m = Math.max(m, a[i]);
+		}
+		return m;
+	}
+
+	private static long maxPlain(long[] a)
+	{
+		long m = a[0];
+		for(int i = 1; i < a.length; i++)
+		{
+			m = Math.max(m, a[i]);
+		}
+		return m;
+	}
+}
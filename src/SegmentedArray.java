@@ -0,0 +1,241 @@
+/*
+ * Why segment an array?
+ *
+ *     When Array<T> runs out of room it allocates an array twice as big and copies every element over. With tens of
+ *     millions of elements one add() suddenly has to copy the whole array, and the new array is so big that the
+ *     garbage collector has to treat it as a special "humongous" allocation.
+ *
+ *     SegmentedArray never does that. Elements live in fixed size chunks, and when the last chunk is full we just
+ *     allocate one more chunk. The only thing that ever gets copied is the small directory of chunk references.
+ *
+ * Two level indexing
+ *
+ *     Every chunk holds the same power of two number of elements, so finding an element is a shift and a mask:
+ *
+ *         chunk  = index >>> chunkShift
+ *         offset = index & chunkMask
+ *
+ *     With chunks of 4 elements:
+ *
+ *         directory -> [ chunk 0 ][ chunk 1 ][ chunk 2 ]
+ *                        a b c d    e f g h    i j
+ *
+ *     get(6) reads chunk 6 >>> 2 = 1 at offset 6 & 3 = 2, which is g.
+ *
+ * Complexity Analysis
+ *
+ *     Get/Set: O(1)
+ *     Append: O(1), no element is ever copied when we grow
+ *     RemoveAt: O(n)
+ *     IndexOf/Contains: O(n)
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unchecked")
+public class SegmentedArray <T> implements Iterable <T>
+{
+	//default number of elements per chunk
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+	private final int chunkShift; //log2 of the chunk size
+	private final int chunkMask; //chunk size - 1
+
+	private Object [][] chunks = new Object[4][]; //chunk directory, only the first chunkCount chunks are allocated
+	private int chunkCount = 0;
+	private int len = 0; //length user thinks array is
+
+	//constructor uses chunks of 4096 elements
+	public SegmentedArray()
+	{
+		this(DEFAULT_CHUNK_SIZE);
+	}
+
+	//constructor with an explicit chunk size. must be a power of two
+	public SegmentedArray(int chunkSize)
+	{
+		if(chunkSize <= 0 || Integer.bitCount(chunkSize) != 1)
+		{
+			throw new IllegalArgumentException("Chunk size must be a power of two: " + chunkSize);
+		}
+		chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+		chunkMask = chunkSize - 1;
+	}
+
+	//get size of array
+	public int size()
+	{
+		return len;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//get a value from the array by index
+	public T get(int index)
+	{
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+		return (T) chunks[index >>> chunkShift][index & chunkMask];
+	}
+
+	//set the value of an index in the array
+	public void set(int index, T elem)
+	{
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+		chunks[index >>> chunkShift][index & chunkMask] = elem;
+	}
+
+	//clear all data in the array. we keep the chunks so the next adds can reuse them
+	public void clear()
+	{
+		for(int i = 0; i < len; i++)
+		{
+			chunks[i >>> chunkShift][i & chunkMask] = null;
+		}
+		len = 0;
+	}
+
+	//adds a new element to the array, allocating a new chunk if the last one is full
+	public void add(T elem)
+	{
+		if(len == (long) chunkCount << chunkShift)
+		{
+			if(len == Integer.MAX_VALUE) throw new IllegalStateException("Array is full");
+			addChunk();
+		}
+		chunks[len >>> chunkShift][len & chunkMask] = elem;
+		len++;
+	}
+
+	//removes the element at the specified index. everything after it moves one slot to the left, chunk by chunk,
+	//and the first element of every following chunk moves into the last slot of the chunk before it
+	public T removeAt(int rm_index)
+	{
+		if(rm_index < 0 || rm_index >= len) throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
+
+		T data = (T) chunks[rm_index >>> chunkShift][rm_index & chunkMask];
+
+		int lastChunk = (len - 1) >>> chunkShift;
+		int offset = rm_index & chunkMask;
+		for(int c = rm_index >>> chunkShift; c <= lastChunk; c++)
+		{
+			Object[] chunk = chunks[c];
+			int end = c == lastChunk ? (len - 1) & chunkMask : chunkMask; //last used slot in this chunk
+			System.arraycopy(chunk, offset + 1, chunk, offset, end - offset);
+			if(c < lastChunk)
+			{
+				chunk[chunkMask] = chunks[c + 1][0];
+			}
+			else
+			{
+				chunk[end] = null;
+			}
+			offset = 0;
+		}
+		len--;
+		return data;
+	}
+
+	//look through array, if we find the element we remove it and return true, if not, false
+	public boolean remove(Object obj)
+	{
+		int index = indexOf(obj);
+		if(index == -1)
+		{
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	//walk the chunks in order, if we find element return its index, if not return -1
+	public int indexOf(Object obj)
+	{
+		for(int c = 0, base = 0; base < len; c++, base += chunkMask + 1)
+		{
+			Object[] chunk = chunks[c];
+			int end = Math.min(chunkMask + 1, len - base);
+			for(int i = 0; i < end; i++)
+			{
+				if(obj == null ? chunk[i] == null : obj.equals(chunk[i]))
+				{
+					return base + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	//finds if array contains value
+	public boolean contains(Object obj)
+	{
+		return indexOf(obj) != -1;
+	}
+
+	//allocates the next chunk, doubling the directory if it is full. only chunk references are ever copied
+	private void addChunk()
+	{
+		if(chunkCount == chunks.length)
+		{
+			Object[][] new_chunks = new Object[chunks.length * 2][];
+			System.arraycopy(chunks, 0, new_chunks, 0, chunkCount);
+			chunks = new_chunks;
+		}
+		if(chunks[chunkCount] == null)
+		{
+			chunks[chunkCount] = new Object[chunkMask + 1];
+		}
+		chunkCount++;
+	}
+
+	//the iterator keeps a reference to the current chunk and walks it sequentially, so it only goes through the
+	//directory once per chunk instead of once per element
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new Iterator <T> ()
+		{
+			int index = 0;
+			Object[] chunk = null;
+
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			public T next()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				int offset = index & chunkMask;
+				if(offset == 0 || chunk == null)
+				{
+					chunk = chunks[index >>> chunkShift];
+				}
+				index++;
+				return (T) chunk[offset];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		if(len == 0)
+		{
+			return "[]";
+		}
+		StringBuilder sb = new StringBuilder(len).append("[");
+		Iterator<T> it = iterator();
+		sb.append(it.next());
+		while(it.hasNext())
+		{
+			sb.append(", ").append(it.next());
+		}
+		return sb.append("]").toString();
+	}
+}
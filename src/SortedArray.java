@@ -0,0 +1,242 @@
+/*
+ * What is a sorted array?
+ *
+ *     A sorted array is a dynamic array that keeps its elements in increasing order at all times. Every add() finds
+ *     the spot the new element belongs in and shifts the larger elements one slot to the right to make room. In
+ *     return, looking an element up is a binary search, O(log(n)), instead of the O(n) scan Array has to do.
+ *
+ * Galloping search
+ *
+ *     Data very often arrives almost in order (timestamps, increasing ids...). A plain binary search would still do
+ *     log(n) comparisons for every add, even when the new element belongs at the very end. So on insert we gallop
+ *     from the back instead: we compare against the last element, then the elements 1, 2, 4, 8... slots before it,
+ *     until we jump past the insertion point. Then we binary search only inside that last jump.
+ *
+ *         [ 1 3 4 7 9 12 15 18 ]  add(13)
+ *                   ^    ^  ^
+ *                   |    |  18 > 13, keep galloping
+ *                   |    15 > 13 (1 back), keep galloping
+ *                   9 <= 13 (2 more back), stop. binary search between 9 and 15
+ *
+ *     Appending something larger than everything is a single comparison, and inserting k slots from the end costs
+ *     O(log(k)) comparisons.
+ *
+ * Complexity Analysis
+ *
+ *     Get: O(1)
+ *     Add: O(log(k)) comparisons, k = distance from the end, plus O(k) to shift
+ *     RemoveAt: O(n)
+ *     IndexOf/Contains: O(log(n))
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unchecked")
+public class SortedArray <T extends Comparable<T>> implements Iterable <T>
+{
+	private T [] arr; //our internal static array, sorted in increasing order
+	private int len = 0; //length user thinks array is
+	private int capacity = 0; //actual array size
+
+	//constructor inits array to be size 16
+	public SortedArray()
+	{
+		this(16);
+	}
+
+	//constructor inits array to be size of capacity(whatever we give it)
+	public SortedArray(int capacity)
+	{
+		if(capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		this.capacity = capacity;
+		arr = (T[]) new Comparable<?>[capacity];
+	}
+
+	//get size of array
+	public int size()
+	{
+		return len;
+	}
+
+	//check if array is empty
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	//get a value from the array by index. there is no set since that could break the ordering
+	public T get(int index)
+	{
+		if(index < 0 || index >= len) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + len);
+		return arr[index];
+	}
+
+	//clear all data in the array. reset length
+	public void clear()
+	{
+		for(int i = 0; i < len; i++)
+		{
+			arr[i] = null;
+		}
+		len = 0;
+	}
+
+	//inserts elem in sorted position and returns the index it landed at. equal elements keep insertion order
+	public int add(T elem)
+	{
+		if(elem == null) throw new IllegalArgumentException("null elements are not allowed");
+
+		if(len == capacity)
+		{
+			capacity = capacity == 0 ? 1 : capacity * 2;
+			T[] new_arr = (T[]) new Comparable<?>[capacity];
+			System.arraycopy(arr, 0, new_arr, 0, len);
+			arr = new_arr;
+		}
+
+		int index = gallopUpperBound(elem);
+		System.arraycopy(arr, index, arr, index + 1, len - index);
+		arr[index] = elem;
+		len++;
+		return index;
+	}
+
+	//removes the element at the specified index by shifting everything after it one slot to the left
+	public T removeAt(int rm_index)
+	{
+		if(rm_index < 0 || rm_index >= len) throw new IndexOutOfBoundsException("Index: " + rm_index + ", Size: " + len);
+
+		T data = arr[rm_index];
+		System.arraycopy(arr, rm_index + 1, arr, rm_index, len - rm_index - 1);
+		arr[--len] = null;
+		return data;
+	}
+
+	//removes one occurrence of elem, returns true if it was found
+	public boolean remove(T elem)
+	{
+		int index = indexOf(elem);
+		if(index == -1)
+		{
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	//binary search for the first occurrence of elem, returns -1 if it isn't in the array
+	public int indexOf(T elem)
+	{
+		if(elem == null)
+		{
+			return -1;
+		}
+		int index = lowerBound(elem);
+		return index < len && arr[index].compareTo(elem) == 0 ? index : -1;
+	}
+
+	//finds if array contains value, O(log(n))
+	public boolean contains(T elem)
+	{
+		return indexOf(elem) != -1;
+	}
+
+	//index of the first element that is >= elem, plain binary search
+	private int lowerBound(T elem)
+	{
+		int lo = 0, hi = len;
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(arr[mid].compareTo(elem) < 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	//index of the first element that is > elem. we gallop backwards from the end of the array to bracket the
+	//answer and then binary search inside the bracket
+	private int gallopUpperBound(T elem)
+	{
+		if(len == 0 || arr[len - 1].compareTo(elem) <= 0)
+		{
+			return len; //the common case: elem goes at the very end
+		}
+
+		//invariant: arr[hi] > elem, and lo is either -1 or an index with arr[lo] <= elem
+		int hi = len - 1;
+		int step = 1;
+		int lo = hi - step;
+		while(lo >= 0 && arr[lo].compareTo(elem) > 0)
+		{
+			hi = lo;
+			step <<= 1;
+			lo = hi - step;
+		}
+		if(lo < -1)
+		{
+			lo = -1;
+		}
+
+		while(hi - lo > 1)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(arr[mid].compareTo(elem) > 0)
+			{
+				hi = mid;
+			}
+			else
+			{
+				lo = mid;
+			}
+		}
+		return hi;
+	}
+
+	//iterates the elements in increasing order
+	@Override
+	public Iterator<T> iterator()
+	{
+		return new Iterator <T> ()
+		{
+			int index = 0;
+
+			public boolean hasNext()
+			{
+				return index < len;
+			}
+
+			public T next()
+			{
+				if(index >= len) throw new NoSuchElementException();
+				return arr[index++];
+			}
+		};
+	}
+
+	//we can call this method to get a string representation of the array
+	@Override
+	public String toString()
+	{
+		if(len == 0)
+		{
+			return "[]";
+		}
+		else
+		{
+			StringBuilder sb = new StringBuilder(len).append("[");
+			for(int i = 0; i < len-1; i++)
+			{
+				sb.append(arr[i]).append(", ");
+			}
+			return sb.append(arr[len-1]).append("]").toString();
+		}
+	}
+}